@@ -26,7 +26,7 @@ public class ChatRestController {
 
     @PostMapping("/send")
     public ResponseEntity<APIResponse<MessageResponse>> sendMessage(
-            @RequestBody MessageRequest request
+            @RequestBody @Valid MessageRequest request
     ) {
         APIResponse<MessageResponse> response = chatService.sendMessage(request);
 
@@ -55,9 +55,11 @@ public class ChatRestController {
 
     @GetMapping("/conversation/{conversationId}")
     public ResponseEntity<APIResponse<List<MessageResponse>>> getMessagesByConversation(
-            @PathVariable Long conversationId
+            @PathVariable Long conversationId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "30") int limit
     ) {
-        APIResponse<List<MessageResponse>> response = chatService.getMessagesByConversation(conversationId);
+        APIResponse<List<MessageResponse>> response = chatService.getMessagesByConversation(conversationId, before, limit);
         return ResponseEntity.ok(response);
     }
 
@@ -76,6 +78,30 @@ public class ChatRestController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/inbox")
+    public ResponseEntity<APIResponse<List<ConversationResponse>>> getInbox(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        APIResponse<List<ConversationResponse>> response = chatService.getInbox(cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/conversation/{conversationId}/read")
+    public ResponseEntity<APIResponse<Void>> markConversationRead(
+            @PathVariable Long conversationId,
+            @RequestParam(required = false) Long messageId
+    ) {
+        APIResponse<Void> response = chatService.markConversationRead(conversationId, messageId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/unread")
+    public ResponseEntity<APIResponse<Long>> getUnreadTotal() {
+        APIResponse<Long> response = chatService.getUnreadTotal();
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/me")
     public ResponseEntity<APIResponse<List<ConversationResponse>>> getMyConversation() {
         APIResponse<List<ConversationResponse>> response = chatService.getMyConversations();
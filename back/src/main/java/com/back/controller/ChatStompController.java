@@ -0,0 +1,71 @@
+package com.back.controller;
+
+import com.back.model.dto.request.MessageRequest;
+import com.back.model.dto.response.MessageAckResponse;
+import com.back.model.dto.response.MessageResponse;
+import com.back.model.enums.EMessageDeliveryStatus;
+import com.back.security.principal.CustomUserDetails;
+import com.back.service.chat.IChatService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class ChatStompController {
+
+    private final IChatService chatService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @MessageMapping("/chat.send")
+    public void sendMessage(@Payload MessageRequest request, Principal principal) {
+        MessageResponse response = chatService.sendRealtime(currentUserId(principal), request);
+        try {
+            messagingTemplate.convertAndSend("/topic/conversation/" + response.getConversationId(), response);
+        } catch (RuntimeException e) {
+            // Tin nhắn đã vào hàng đợi, không được trả REJECTED khiến client gửi lại thành bản trùng
+            log.warn("Không thể phát tin nhắn {} tới hội thoại {}", response.getId(), response.getConversationId(), e);
+        }
+    }
+
+    @MessageExceptionHandler
+    public void handleException(RuntimeException e, @Payload MessageRequest request, Principal principal) {
+        Long userId = userIdOrNull(principal);
+        if (userId == null) {
+            log.warn("Từ chối tin nhắn STOMP chưa xác thực: {}", e.getMessage());
+            return;
+        }
+        messagingTemplate.convertAndSend(
+                "/topic/users/" + userId + "/chat.ack",
+                MessageAckResponse.builder()
+                        .clientMessageId(request.getClientMessageId())
+                        .conversationId(request.getConversationId())
+                        .status(EMessageDeliveryStatus.REJECTED)
+                        .message(e.getMessage())
+                        .build());
+    }
+
+    private static Long currentUserId(Principal principal) {
+        Long userId = userIdOrNull(principal);
+        if (userId == null) {
+            throw new IllegalStateException("Chưa xác thực");
+        }
+        return userId;
+    }
+
+    private static Long userIdOrNull(Principal principal) {
+        if (principal instanceof Authentication authentication
+                && authentication.getPrincipal() instanceof CustomUserDetails userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.back.controller;
+
+import com.back.service.storage.LocalMediaStorage;
+import com.back.service.storage.MediaStorageProperties;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/media")
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "local")
+@Tag(name = "Media", description = "Phục vụ file media lưu trên ổ đĩa")
+public class MediaController {
+
+    private final LocalMediaStorage localMediaStorage;
+    private final MediaStorageProperties mediaStorageProperties;
+
+    @GetMapping("/**")
+    public ResponseEntity<Resource> getMedia(HttpServletRequest request) throws IOException {
+        String key = request.getRequestURI().substring(request.getContextPath().length() + "/media/".length());
+        Path path = localMediaStorage.resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchElementException("Không tìm thấy media");
+        }
+
+        FileSystemResource resource = new FileSystemResource(path);
+        return ResponseEntity.ok()
+                .contentType(MediaTypeFactory.getMediaType(resource).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .cacheControl(CacheControl.maxAge(mediaStorageProperties.getCacheMaxAgeSeconds(), TimeUnit.SECONDS)
+                        .cachePublic()
+                        .immutable())
+                .lastModified(resource.lastModified())
+                .body(resource);
+    }
+}
@@ -8,7 +8,6 @@ import com.back.service.post.IPostService;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,12 +27,15 @@ public class PostController{
             @ModelAttribute PostRequest postRequest
     ) {
         APIResponse<PostResponse> response = postService.createPost(postRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(response.getStatus()).body(response);
     }
 
     @GetMapping("/feeds")
-    public ResponseEntity<APIResponse<List<PostResponse>>> getFeeds() {
-        APIResponse<List<PostResponse>> response = postService.getFeeds();
+    public ResponseEntity<APIResponse<List<PostResponse>>> getFeeds(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        APIResponse<List<PostResponse>> response = postService.getFeeds(cursor, limit);
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,56 @@
+package com.back.controller;
+
+import com.back.model.dto.request.UploadSessionRequest;
+import com.back.model.dto.response.APIResponse;
+import com.back.model.dto.response.UploadSessionResponse;
+import com.back.service.upload.IUploadSessionService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/uploads")
+@SecurityRequirement(name = "Bearer Authentication")
+@Tag(name = "Upload", description = "API upload file theo chunk, có thể tiếp tục khi mất kết nối")
+public class UploadController {
+
+    private final IUploadSessionService uploadSessionService;
+
+    @PostMapping
+    public ResponseEntity<APIResponse<UploadSessionResponse>> createSession(
+            @RequestBody @Valid UploadSessionRequest request
+    ) {
+        APIResponse<UploadSessionResponse> response = uploadSessionService.createSession(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<APIResponse<UploadSessionResponse>> getSession(@PathVariable String uploadId) {
+        return ResponseEntity.ok(uploadSessionService.getSession(uploadId));
+    }
+
+    @PutMapping(value = "/{uploadId}/chunks", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<APIResponse<UploadSessionResponse>> appendChunk(
+            @PathVariable String uploadId,
+            @RequestParam long offset,
+            HttpServletRequest request
+    ) throws IOException {
+        APIResponse<UploadSessionResponse> response =
+                uploadSessionService.appendChunk(uploadId, offset, request.getInputStream());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<APIResponse<UploadSessionResponse>> completeSession(@PathVariable String uploadId) {
+        return ResponseEntity.ok(uploadSessionService.completeSession(uploadId));
+    }
+}
@@ -16,4 +16,5 @@ public class MessageMediaRequest{
     private Long conversationId;
     private Long senderId;
     private List<MultipartFile> mediaFiles;
+    private List<String> uploadIds;
 }
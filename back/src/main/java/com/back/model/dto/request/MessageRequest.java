@@ -1,5 +1,6 @@
 package com.back.model.dto.request;
 
+import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -12,6 +13,8 @@ import java.util.List;
 @Builder
 public class MessageRequest{
     private Long conversationId;
+    @Size(max = 255, message = "Tin nhắn không được quá 255 ký tự")
     private String content;
     private Long senderId;
+    private String clientMessageId;
 }
@@ -22,4 +22,6 @@ public class PostRequest{
 
     @Size(min = 1, message = "Cần ít nhất một file media")
     private List<MultipartFile> mediaFiles;
+
+    private List<String> uploadIds;
 }
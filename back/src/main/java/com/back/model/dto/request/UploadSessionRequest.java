@@ -0,0 +1,24 @@
+package com.back.model.dto.request;
+
+import com.back.model.enums.EMediaKind;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionRequest {
+
+    @NotBlank(message = "Tên file không được để trống")
+    private String fileName;
+
+    @NotBlank(message = "Loại file không được để trống")
+    private String contentType;
+
+    @Positive(message = "Kích thước file phải lớn hơn 0")
+    private long totalSize;
+
+    private EMediaKind kind;
+}
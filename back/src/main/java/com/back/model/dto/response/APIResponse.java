@@ -26,7 +26,12 @@ public class APIResponse<T>{
                 .data(data)
                 .message("Success")
                 .status(200)
-                .meta(new PaginationResponse(currentPage, pageSize, totalPages, totalItems))
+                .meta(PaginationResponse.builder()
+                        .currentPage(currentPage)
+                        .pageSize(pageSize)
+                        .totalPages(totalPages)
+                        .totalItems(totalItems)
+                        .build())
                 .build();
     }
 
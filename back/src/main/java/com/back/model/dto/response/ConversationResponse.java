@@ -14,4 +14,9 @@ public class ConversationResponse {
     private List<UserSummaryResponse> participants;
     private List<MessageResponse> messages;
     private boolean isGroup;
+    private Long lastMessageId;
+    private LocalDateTime lastMessageAt;
+    private String lastMessagePreview;
+    private Long lastReadMessageId;
+    private long unreadCount;
 }
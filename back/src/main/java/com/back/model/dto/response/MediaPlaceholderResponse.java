@@ -0,0 +1,14 @@
+package com.back.model.dto.response;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaPlaceholderResponse {
+    private String blurhash;
+    private String dominantColor;
+    private Integer width;
+    private Integer height;
+}
@@ -0,0 +1,16 @@
+package com.back.model.dto.response;
+
+import com.back.model.enums.EMessageDeliveryStatus;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageAckResponse {
+    private String clientMessageId;
+    private Long messageId;
+    private Long conversationId;
+    private EMessageDeliveryStatus status;
+    private String message;
+}
@@ -12,4 +12,6 @@ public class PaginationResponse{
     private int pageSize;
     private int totalPages;
     private long totalItems;
+    private String nextCursor;
+    private boolean hasNext;
 }
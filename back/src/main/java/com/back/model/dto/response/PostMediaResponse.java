@@ -3,6 +3,8 @@ package com.back.model.dto.response;
 import com.back.model.enums.EMediaType;
 import lombok.*;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -11,4 +13,6 @@ public class PostMediaResponse {
     private Long id;
     private String url;
     private EMediaType type;
+    private Map<String, String> variants;
+    private MediaPlaceholderResponse placeholder;
 }
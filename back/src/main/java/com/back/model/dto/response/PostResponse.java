@@ -1,5 +1,6 @@
 package com.back.model.dto.response;
 
+import com.back.model.enums.EPostStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -16,6 +17,7 @@ public class PostResponse{
     private Long id;
     private String content;
     private LocalDateTime createdAt;
+    private EPostStatus status;
 
     private UserSummaryResponse user;
 
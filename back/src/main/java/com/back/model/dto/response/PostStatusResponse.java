@@ -0,0 +1,14 @@
+package com.back.model.dto.response;
+
+import com.back.model.enums.EPostStatus;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostStatusResponse {
+    private Long postId;
+    private EPostStatus status;
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.back.model.dto.response;
+
+import com.back.model.enums.EMediaType;
+import com.back.model.enums.EUploadStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionResponse {
+    private String id;
+    private String fileName;
+    private String contentType;
+    private long totalSize;
+    private long receivedBytes;
+    private EUploadStatus status;
+    private EMediaType mediaType;
+    private String mediaUrl;
+    private LocalDateTime expiresAt;
+}
@@ -2,6 +2,8 @@ package com.back.model.dto.response;
 
 import lombok.*;
 
+import java.util.Map;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -11,4 +13,6 @@ public class UserSummaryResponse {
     private String username;
     private String fullName;
     private String avatarUrl;
+    private Map<String, String> avatarVariants;
+    private MediaPlaceholderResponse avatarPlaceholder;
 }
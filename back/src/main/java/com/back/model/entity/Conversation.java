@@ -3,6 +3,7 @@ package com.back.model.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Entity
@@ -10,6 +11,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = {
+        @Index(name = "idx_conversation_last_message_at", columnList = "last_message_at, id")
+})
 public class Conversation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,15 +26,32 @@ public class Conversation {
     @Column(nullable = false)
     private boolean isGroup;
 
-    @ManyToMany
-    @JoinTable(
-        name = "conversation_users",
-        joinColumns = @JoinColumn(name = "conversation_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
-    )
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
 
-    private List<User> participants;
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "last_message_preview")
+    private String lastMessagePreview;
+
+    @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Builder.Default
+    private List<ConversationMember> members = new ArrayList<>();
 
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Message> messages;
+
+    public List<User> getParticipants() {
+        return members.stream().map(ConversationMember::getUser).toList();
+    }
+
+    public void addMember(User user) {
+        members.add(ConversationMember.builder()
+                .id(new ConversationMemberId(id, user.getId()))
+                .conversation(this)
+                .user(user)
+                .joinedAt(LocalDateTime.now())
+                .build());
+    }
 }
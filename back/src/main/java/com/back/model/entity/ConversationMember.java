@@ -0,0 +1,43 @@
+package com.back.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "conversation_users", indexes = {
+        @Index(name = "idx_conversation_member_user", columnList = "user_id, conversation_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversationMember {
+    @EmbeddedId
+    private ConversationMemberId id;
+
+    @MapsId("conversationId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Conversation conversation;
+
+    @MapsId("userId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Column(name = "last_read_message_id")
+    private Long lastReadMessageId;
+
+    @Column(name = "unread_count", nullable = false)
+    @ColumnDefault("0")
+    private long unreadCount;
+
+    private LocalDateTime joinedAt;
+}
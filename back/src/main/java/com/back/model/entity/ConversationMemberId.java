@@ -0,0 +1,19 @@
+package com.back.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationMemberId implements Serializable {
+    @Column(name = "conversation_id")
+    private Long conversationId;
+
+    @Column(name = "user_id")
+    private Long userId;
+}
@@ -0,0 +1,18 @@
+package com.back.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "counter_shards")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CounterShard {
+    @EmbeddedId
+    private CounterShardId id;
+
+    @Column(nullable = false)
+    private long amount;
+}
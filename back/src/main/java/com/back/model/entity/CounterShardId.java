@@ -0,0 +1,22 @@
+package com.back.model.entity;
+
+import com.back.model.enums.ECounterScope;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CounterShardId implements Serializable {
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private ECounterScope scope;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    private int shard;
+}
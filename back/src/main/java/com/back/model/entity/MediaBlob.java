@@ -0,0 +1,35 @@
+package com.back.model.entity;
+
+import com.back.model.enums.EMediaType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "media_blob")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaBlob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Column(nullable = false)
+    private String url;
+
+    @Enumerated(EnumType.STRING)
+    private EMediaType mediaType;
+
+    private long size;
+
+    @Embedded
+    private MediaVariants variants;
+
+    @Embedded
+    private MediaPlaceholder placeholder;
+
+    private LocalDateTime createdAt;
+}
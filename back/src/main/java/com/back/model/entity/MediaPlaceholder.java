@@ -0,0 +1,22 @@
+package com.back.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaPlaceholder {
+    @Column(length = 64)
+    private String blurhash;
+
+    @Column(length = 7)
+    private String dominantColor;
+
+    private Integer width;
+
+    private Integer height;
+}
@@ -0,0 +1,32 @@
+package com.back.model.entity;
+
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaVariants {
+    private String thumbnailUrl;
+    private String feedUrl;
+    private String fullUrl;
+
+    public Map<String, String> asMap() {
+        Map<String, String> variants = new LinkedHashMap<>();
+        if (thumbnailUrl != null) {
+            variants.put("thumbnail", thumbnailUrl);
+        }
+        if (feedUrl != null) {
+            variants.put("feed", feedUrl);
+        }
+        if (fullUrl != null) {
+            variants.put("full", fullUrl);
+        }
+        return variants;
+    }
+}
@@ -1,5 +1,6 @@
 package com.back.model.entity;
 
+import com.back.utils.id.TsidId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -11,9 +12,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = {
+        @Index(name = "idx_message_conversation_id", columnList = "conversation_id, id")
+})
 public class Message {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     private String content;
@@ -1,5 +1,6 @@
 package com.back.model.entity;
 
+import com.back.utils.id.TsidId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,7 +14,7 @@ import lombok.NoArgsConstructor;
 @Builder
 public class MessageMedia {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     private String url;
@@ -1,6 +1,7 @@
 package com.back.model.entity;
 
 import com.back.model.enums.EReactionType;
+import com.back.utils.id.TsidId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
 @Builder
 public class MessageReaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -1,5 +1,6 @@
 package com.back.model.entity;
 
+import com.back.utils.id.TsidId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -11,7 +12,7 @@ import java.time.LocalDateTime;
 @Builder
 public class Notification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     private String message;
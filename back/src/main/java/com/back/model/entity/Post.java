@@ -1,19 +1,28 @@
 package com.back.model.entity;
 
+import com.back.model.enums.EPostStatus;
 import com.back.model.enums.EVisibility;
+import com.back.utils.id.TsidId;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.List;
 
+// ddl-auto=update không xoá index cũ: database đã có idx_post_user_created (user_id, created_at, id) cần chạy tay
+// "ALTER TABLE post DROP INDEX idx_post_user_created", các index dưới đây đã bao phủ nó
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_post_user_visibility_created", columnList = "user_id, visibility, created_at, id"),
+        @Index(name = "idx_post_user_status_created", columnList = "user_id, status, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Post {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     @Column(length = 500)
@@ -24,6 +33,22 @@ public class Post {
 
     private LocalDateTime createdAt;
 
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    @ColumnDefault("'PUBLISHED'")
+    @Column(length = 20, nullable = false)
+    private EPostStatus status = EPostStatus.PUBLISHED;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long reactionCount = 0;
+
+    @Builder.Default
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long commentCount = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
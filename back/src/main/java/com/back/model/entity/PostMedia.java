@@ -1,6 +1,7 @@
 package com.back.model.entity;
 
 import com.back.model.enums.EMediaType;
+import com.back.utils.id.TsidId;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -14,7 +15,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class PostMedia {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     private String url;
@@ -22,6 +23,12 @@ public class PostMedia {
     @Enumerated(EnumType.STRING)
     private EMediaType type;
 
+    @Embedded
+    private MediaVariants variants;
+
+    @Embedded
+    private MediaPlaceholder placeholder;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     private Post post;
@@ -1,5 +1,6 @@
 package com.back.model.entity;
 
+import com.back.utils.id.TsidId;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -16,7 +17,7 @@ import java.time.LocalDateTime;
 )
 public class PostReaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TsidId
     private Long id;
 
     private LocalDateTime createdAt;
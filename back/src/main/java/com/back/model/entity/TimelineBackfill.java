@@ -0,0 +1,21 @@
+package com.back.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "timeline_backfills")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimelineBackfill {
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "backfilled_at", nullable = false)
+    private LocalDateTime backfilledAt;
+}
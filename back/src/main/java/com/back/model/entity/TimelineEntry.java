@@ -0,0 +1,38 @@
+package com.back.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "timeline_entries",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"owner_id", "post_id"})
+        },
+        indexes = {
+                @Index(name = "idx_timeline_owner_created", columnList = "owner_id, created_at, post_id"),
+                @Index(name = "idx_timeline_owner_author", columnList = "owner_id, author_id"),
+                @Index(name = "idx_timeline_post", columnList = "post_id")
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimelineEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
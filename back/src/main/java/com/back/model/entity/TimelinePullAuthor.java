@@ -0,0 +1,16 @@
+package com.back.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "timeline_pull_authors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimelinePullAuthor {
+    @Id
+    @Column(name = "author_id")
+    private Long authorId;
+}
@@ -0,0 +1,58 @@
+package com.back.model.entity;
+
+import com.back.model.enums.EMediaKind;
+import com.back.model.enums.EMediaType;
+import com.back.model.enums.EUploadStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "upload_sessions", indexes = {
+        @Index(name = "idx_upload_session_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    private String fileName;
+
+    private String contentType;
+
+    private long totalSize;
+
+    private long receivedBytes;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private EUploadStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private EMediaType mediaType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private EMediaKind kind;
+
+    private String mediaUrl;
+
+    @Embedded
+    private MediaVariants variants;
+
+    @Embedded
+    private MediaPlaceholder placeholder;
+
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+}
@@ -40,6 +40,23 @@ public class User {
     @Column(name = "avatar_url", length = 100)
     private String avatarUrl;
 
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "thumbnailUrl", column = @Column(name = "avatar_thumbnail_url")),
+            @AttributeOverride(name = "feedUrl", column = @Column(name = "avatar_feed_url")),
+            @AttributeOverride(name = "fullUrl", column = @Column(name = "avatar_full_url"))
+    })
+    private MediaVariants avatarVariants;
+
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "blurhash", column = @Column(name = "avatar_blurhash", length = 64)),
+            @AttributeOverride(name = "dominantColor", column = @Column(name = "avatar_dominant_color", length = 7)),
+            @AttributeOverride(name = "width", column = @Column(name = "avatar_width")),
+            @AttributeOverride(name = "height", column = @Column(name = "avatar_height"))
+    })
+    private MediaPlaceholder avatarPlaceholder;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "gender", nullable = false)
     private EGender gender;
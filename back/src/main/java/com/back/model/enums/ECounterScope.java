@@ -0,0 +1,6 @@
+package com.back.model.enums;
+
+public enum ECounterScope {
+    POST_REACTION,
+    USER_FOLLOWER
+}
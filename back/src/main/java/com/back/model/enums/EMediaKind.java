@@ -0,0 +1,5 @@
+package com.back.model.enums;
+
+public enum EMediaKind{
+    POST, CHAT, AVATAR
+}
@@ -0,0 +1,7 @@
+package com.back.model.enums;
+
+public enum EPostStatus {
+    PROCESSING,
+    PUBLISHED,
+    FAILED
+}
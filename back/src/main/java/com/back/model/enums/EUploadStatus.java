@@ -0,0 +1,8 @@
+package com.back.model.enums;
+
+public enum EUploadStatus {
+    UPLOADING,
+    PROCESSING,
+    COMPLETED,
+    ATTACHED
+}
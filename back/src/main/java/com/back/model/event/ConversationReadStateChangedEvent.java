@@ -0,0 +1,6 @@
+package com.back.model.event;
+
+import java.util.Collection;
+
+public record ConversationReadStateChangedEvent(Long conversationId, Collection<Long> userIds) {
+}
@@ -0,0 +1,4 @@
+package com.back.model.event;
+
+public record PostCommentCountChangedEvent(Long postId, long delta) {
+}
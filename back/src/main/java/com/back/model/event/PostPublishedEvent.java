@@ -0,0 +1,8 @@
+package com.back.model.event;
+
+import com.back.model.enums.EVisibility;
+
+import java.time.LocalDateTime;
+
+public record PostPublishedEvent(Long postId, Long authorId, LocalDateTime createdAt, EVisibility visibility) {
+}
@@ -0,0 +1,4 @@
+package com.back.model.event;
+
+public record PostReactionToggledEvent(Long postId, Long userId, boolean reacted) {
+}
@@ -0,0 +1,6 @@
+package com.back.model.event;
+
+import com.back.model.enums.EVisibility;
+
+public record PostVisibilityChangedEvent(Long postId, Long authorId, EVisibility visibility) {
+}
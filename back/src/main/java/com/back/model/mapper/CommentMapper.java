@@ -1,7 +1,6 @@
 package com.back.model.mapper;
 
 import com.back.model.dto.response.CommentResponse;
-import com.back.model.dto.response.UserSummaryResponse;
 import com.back.model.entity.Comment;
 import com.back.model.entity.User;
 
@@ -12,12 +11,7 @@ public class CommentMapper{
         CommentResponse response = CommentResponse.builder()
                 .id(comment.getId())
                 .content(comment.getContent())
-                .user(UserSummaryResponse.builder()
-                        .id(comment.getUser().getId())
-                        .username(comment.getUser().getUsername())
-                        .fullName(comment.getUser().getFullName())
-                        .avatarUrl(comment.getUser().getAvatarUrl())
-                        .build())
+                .user(UserSummaryMapper.mapToUserSummary(comment.getUser()))
                 .createdAt(comment.getCreatedAt())
                 .reactionCount(comment.getReactions() != null ? comment.getReactions().size() : 0)
                 .reactedByCurrentUser(comment.getReactions() != null &&
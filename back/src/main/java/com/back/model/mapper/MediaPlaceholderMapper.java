@@ -0,0 +1,18 @@
+package com.back.model.mapper;
+
+import com.back.model.dto.response.MediaPlaceholderResponse;
+import com.back.model.entity.MediaPlaceholder;
+
+public class MediaPlaceholderMapper{
+    public static MediaPlaceholderResponse mapToPlaceholderResponse(MediaPlaceholder placeholder) {
+        if (placeholder == null || placeholder.getBlurhash() == null) {
+            return null;
+        }
+        return MediaPlaceholderResponse.builder()
+                .blurhash(placeholder.getBlurhash())
+                .dominantColor(placeholder.getDominantColor())
+                .width(placeholder.getWidth())
+                .height(placeholder.getHeight())
+                .build();
+    }
+}
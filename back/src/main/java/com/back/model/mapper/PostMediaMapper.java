@@ -0,0 +1,16 @@
+package com.back.model.mapper;
+
+import com.back.model.dto.response.PostMediaResponse;
+import com.back.model.entity.PostMedia;
+
+public class PostMediaMapper{
+    public static PostMediaResponse mapToPostMediaResponse(PostMedia media) {
+        return PostMediaResponse.builder()
+                .id(media.getId())
+                .url(media.getUrl())
+                .type(media.getType())
+                .variants(media.getVariants() != null ? media.getVariants().asMap() : null)
+                .placeholder(MediaPlaceholderMapper.mapToPlaceholderResponse(media.getPlaceholder()))
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.back.model.mapper;
+
+import com.back.model.dto.response.UserSummaryResponse;
+import com.back.model.entity.User;
+
+public class UserSummaryMapper{
+    public static UserSummaryResponse mapToUserSummary(User user) {
+        return UserSummaryResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .fullName(user.getFullName())
+                .avatarUrl(user.getAvatarUrl())
+                .avatarVariants(user.getAvatarVariants() != null ? user.getAvatarVariants().asMap() : null)
+                .avatarPlaceholder(MediaPlaceholderMapper.mapToPlaceholderResponse(user.getAvatarPlaceholder()))
+                .build();
+    }
+}
@@ -2,11 +2,12 @@ package com.back.repository;
 
 import com.back.model.entity.Comment;
 import com.back.model.entity.Post;
-import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.awt.print.Pageable;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,4 +15,7 @@ public interface ICommentRepository extends JpaRepository<Comment, Long>{
     List<Comment> findByPost(Post post);
 
     long countCommentsByPostId(Long id);
+
+    @Query("SELECT c.post.id, COUNT(c) FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<Object[]> countCommentsGroupedByPostIds(@Param("postIds") Collection<Long> postIds);
 }
@@ -0,0 +1,45 @@
+package com.back.repository;
+
+import com.back.model.entity.ConversationMember;
+import com.back.model.entity.ConversationMemberId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IConversationMemberRepository extends JpaRepository<ConversationMember, ConversationMemberId>{
+
+    @Modifying
+    @Query("UPDATE ConversationMember m SET m.unreadCount = m.unreadCount + 1 " +
+            "WHERE m.id.conversationId = :conversationId AND m.id.userId <> :senderId")
+    int incrementUnread(@Param("conversationId") Long conversationId, @Param("senderId") Long senderId);
+
+    @Modifying
+    @Query("UPDATE ConversationMember m SET m.unreadCount = m.unreadCount - 1 " +
+            "WHERE m.id.conversationId = :conversationId AND m.id.userId <> :senderId AND m.unreadCount > 0 " +
+            "AND (m.lastReadMessageId IS NULL OR m.lastReadMessageId < :messageId)")
+    int decrementUnread(@Param("conversationId") Long conversationId,
+                        @Param("senderId") Long senderId,
+                        @Param("messageId") Long messageId);
+
+    // Số chưa đọc được tính lại từ các tin nhắn sau con trỏ, nên đánh dấu đọc một tin cũ hơn tin cuối vẫn đúng
+    @Modifying
+    @Query("UPDATE ConversationMember m SET m.lastReadMessageId = :messageId, " +
+            "m.unreadCount = (SELECT COUNT(msg) FROM Message msg WHERE msg.conversation.id = :conversationId " +
+            "AND msg.id > :messageId AND msg.sender.id <> :userId) " +
+            "WHERE m.id.conversationId = :conversationId AND m.id.userId = :userId " +
+            "AND (m.lastReadMessageId IS NULL OR m.lastReadMessageId < :messageId)")
+    int markRead(@Param("conversationId") Long conversationId,
+                 @Param("userId") Long userId,
+                 @Param("messageId") Long messageId);
+
+    @Query("SELECT m.id.userId FROM ConversationMember m WHERE m.id.conversationId = :conversationId")
+    List<Long> findUserIdsByConversationId(@Param("conversationId") Long conversationId);
+
+    @Query("SELECT COALESCE(SUM(m.unreadCount), 0) FROM ConversationMember m WHERE m.id.userId = :userId")
+    long sumUnreadByUserId(@Param("userId") Long userId);
+}
@@ -2,20 +2,77 @@ package com.back.repository;
 
 import com.back.model.entity.Conversation;
 import com.back.model.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface IConversationRepository extends JpaRepository<Conversation, Long>{
-    @Query("SELECT c FROM Conversation c JOIN c.participants p1 JOIN c.participants p2 " +
-            "WHERE p1.id = :userId1 AND p2.id = :userId2 AND SIZE(c.participants) = 2")
+    @Query("SELECT c FROM Conversation c JOIN c.members m1 JOIN c.members m2 " +
+            "WHERE m1.user.id = :userId1 AND m2.user.id = :userId2 AND SIZE(c.members) = 2")
     Optional<Conversation> findConversationByParticipants(@Param("userId1") Long userId1,
                                                           @Param("userId2") Long userId2);
 
-    List<Conversation> findByParticipantsContaining(User user);
+    @Query("SELECT c FROM Conversation c JOIN c.members m WHERE m.user = :user")
+    List<Conversation> findByMemberUser(@Param("user") User user);
+
+    @Query("SELECT c.id FROM Conversation c JOIN c.members m " +
+            "WHERE m.user.id = :userId " +
+            "ORDER BY c.lastMessageAt DESC, c.id DESC")
+    List<Long> findInboxFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT c.id FROM Conversation c JOIN c.members m " +
+            "WHERE m.user.id = :userId " +
+            "AND (c.lastMessageAt < :activityAt OR (c.lastMessageAt = :activityAt AND c.id < :id)) " +
+            "ORDER BY c.lastMessageAt DESC, c.id DESC")
+    List<Long> findInboxPageBefore(@Param("userId") Long userId,
+                                   @Param("activityAt") LocalDateTime activityAt,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+
+    @Query("SELECT DISTINCT c FROM Conversation c LEFT JOIN FETCH c.members m LEFT JOIN FETCH m.user WHERE c.id IN :ids")
+    List<Conversation> findWithParticipantsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageId = :messageId, c.lastMessageAt = :sentAt, " +
+            "c.lastMessagePreview = :preview " +
+            "WHERE c.id = :conversationId AND (c.lastMessageId IS NULL OR c.lastMessageId < :messageId)")
+    int advanceLastMessage(@Param("conversationId") Long conversationId,
+                           @Param("messageId") Long messageId,
+                           @Param("sentAt") LocalDateTime sentAt,
+                           @Param("preview") String preview);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageId = :messageId, c.lastMessageAt = :sentAt, " +
+            "c.lastMessagePreview = :preview WHERE c.id = :conversationId")
+    int resetLastMessage(@Param("conversationId") Long conversationId,
+                         @Param("messageId") Long messageId,
+                         @Param("sentAt") LocalDateTime sentAt,
+                         @Param("preview") String preview);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE conversation c " +
+            "JOIN (SELECT conversation_id, MAX(id) AS last_id FROM message GROUP BY conversation_id) x " +
+            "ON x.conversation_id = c.id " +
+            "JOIN message m ON m.id = x.last_id " +
+            "SET c.last_message_id = m.id, c.last_message_at = m.created_at, " +
+            "c.last_message_preview = COALESCE(LEFT(m.content, 120), '[Media]') " +
+            "WHERE c.last_message_id IS NULL", nativeQuery = true)
+    int backfillLastMessages();
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE conversation SET last_message_at = COALESCE(created_at, NOW()) " +
+            "WHERE last_message_at IS NULL", nativeQuery = true)
+    int backfillLastMessageAt();
 }
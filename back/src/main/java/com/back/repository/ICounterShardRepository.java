@@ -0,0 +1,48 @@
+package com.back.repository;
+
+import com.back.model.entity.CounterShard;
+import com.back.model.entity.CounterShardId;
+import com.back.model.enums.ECounterScope;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ICounterShardRepository extends JpaRepository<CounterShard, CounterShardId>{
+
+    @Modifying
+    @Query(value = "INSERT INTO counter_shards (scope, entity_id, shard, amount) " +
+            "VALUES (:scope, :entityId, :shard, :delta) " +
+            "ON DUPLICATE KEY UPDATE amount = amount + :delta", nativeQuery = true)
+    int increment(@Param("scope") String scope,
+                  @Param("entityId") Long entityId,
+                  @Param("shard") int shard,
+                  @Param("delta") long delta);
+
+    @Query("SELECT c.id.entityId, SUM(c.amount) FROM CounterShard c " +
+            "WHERE c.id.scope = :scope AND c.id.entityId IN :entityIds GROUP BY c.id.entityId")
+    List<Object[]> sumByEntityIds(@Param("scope") ECounterScope scope,
+                                  @Param("entityIds") Collection<Long> entityIds);
+
+    boolean existsByIdScope(ECounterScope scope);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO counter_shards (scope, entity_id, shard, amount) " +
+            "SELECT 'POST_REACTION', r.post_id, 0, COUNT(*) FROM post_reaction r GROUP BY r.post_id", nativeQuery = true)
+    int seedPostReactionShards();
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO counter_shards (scope, entity_id, shard, amount) " +
+            "SELECT 'USER_FOLLOWER', f.following_id, 0, COUNT(*) FROM follows f " +
+            "WHERE f.status = 'ACCEPTED' GROUP BY f.following_id", nativeQuery = true)
+    int seedUserFollowerShards();
+
+    @Query("SELECT c.id.entityId FROM CounterShard c WHERE c.id.scope = :scope " +
+            "GROUP BY c.id.entityId HAVING SUM(c.amount) > :threshold")
+    List<Long> findEntityIdsWithSumAbove(@Param("scope") ECounterScope scope, @Param("threshold") long threshold);
+}
@@ -4,6 +4,7 @@ import com.back.model.entity.Follow;
 import com.back.model.entity.User;
 import com.back.model.enums.EFollowStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,7 +21,10 @@ public interface IFollowRepository extends JpaRepository<Follow, Long> {
 
     List<Follow> findByFollowerAndStatus(User follower, EFollowStatus status);
 
-    void deleteByFollowerAndFollowing(User blocker, User blocked);
+    @Query("SELECT f.following.id FROM Follow f WHERE f.follower.id = :followerId AND f.status = :status")
+    List<Long> findFollowingIdsByFollowerIdAndStatus(Long followerId, EFollowStatus status);
+
+    List<Follow> deleteByFollowerAndFollowing(User blocker, User blocked);
 
     long countByFollowingAndStatus(User following, EFollowStatus status);
     long countByFollowerAndStatus(User follower, EFollowStatus status);
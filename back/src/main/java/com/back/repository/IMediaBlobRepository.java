@@ -0,0 +1,24 @@
+package com.back.repository;
+
+import com.back.model.entity.MediaBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+
+@Repository
+public interface IMediaBlobRepository extends JpaRepository<MediaBlob, String>{
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO media_blob (hash, url, media_type, size, created_at, " +
+            "thumbnail_url, feed_url, full_url, blurhash, dominant_color, width, height) " +
+            "VALUES (:#{#blob.hash}, :#{#blob.url}, :#{#blob.mediaType.name()}, :#{#blob.size}, :#{#blob.createdAt}, " +
+            ":#{#blob.variants?.thumbnailUrl}, :#{#blob.variants?.feedUrl}, :#{#blob.variants?.fullUrl}, " +
+            ":#{#blob.placeholder?.blurhash}, :#{#blob.placeholder?.dominantColor}, :#{#blob.placeholder?.width}, :#{#blob.placeholder?.height})",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("blob") MediaBlob blob);
+}
@@ -2,8 +2,16 @@ package com.back.repository;
 
 import com.back.model.entity.MessageMedia;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface IMessageMediaRepository extends JpaRepository<MessageMedia, Long>{
+
+    @Query("SELECT mm FROM MessageMedia mm WHERE mm.message.id IN :messageIds ORDER BY mm.id")
+    List<MessageMedia> findByMessageIds(@Param("messageIds") Collection<Long> messageIds);
 }
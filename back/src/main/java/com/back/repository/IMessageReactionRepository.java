@@ -4,9 +4,16 @@ import com.back.model.entity.Message;
 import com.back.model.entity.MessageReaction;
 import com.back.model.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface IMessageReactionRepository extends JpaRepository<MessageReaction, Long>{
     Optional<MessageReaction> findByMessageAndUser(Message message, User user);
+
+    @Query("SELECT r FROM MessageReaction r JOIN FETCH r.user WHERE r.message.id IN :messageIds")
+    List<MessageReaction> findByMessageIds(@Param("messageIds") Collection<Long> messageIds);
 }
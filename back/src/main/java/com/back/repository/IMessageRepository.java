@@ -2,7 +2,10 @@ package com.back.repository;
 
 import com.back.model.entity.Message;
 import com.back.model.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -11,4 +14,16 @@ import java.util.List;
 @Repository
 public interface IMessageRepository extends JpaRepository<Message, Long>{
     List<Message> findBySender(User user);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender " +
+            "WHERE m.conversation.id = :conversationId " +
+            "ORDER BY m.id DESC")
+    List<Message> findLatestByConversation(@Param("conversationId") Long conversationId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender " +
+            "WHERE m.conversation.id = :conversationId AND m.id < :before " +
+            "ORDER BY m.id DESC")
+    List<Message> findByConversationBefore(@Param("conversationId") Long conversationId,
+                                           @Param("before") Long before,
+                                           Pageable pageable);
 }
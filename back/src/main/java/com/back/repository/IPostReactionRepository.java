@@ -2,8 +2,12 @@ package com.back.repository;
 
 import com.back.model.entity.PostReaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +18,13 @@ public interface IPostReactionRepository extends JpaRepository<PostReaction, Lon
     boolean existsByPostIdAndUserId(Long postId, Long userId);
 
     long countReactionsByPostId(Long id);
+
+    @Query("SELECT r.post.id FROM PostReaction r WHERE r.user.id = :userId")
+    List<Long> findPostIdsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT r.post.id FROM PostReaction r WHERE r.user.id = :userId AND r.post.id IN :postIds")
+    List<Long> findReactedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    @Query("SELECT r.post.id, COUNT(r) FROM PostReaction r WHERE r.post.id IN :postIds GROUP BY r.post.id")
+    List<Object[]> countReactionsGroupedByPostIds(@Param("postIds") Collection<Long> postIds);
 }
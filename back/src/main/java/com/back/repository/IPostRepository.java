@@ -2,27 +2,95 @@ package com.back.repository;
 
 import com.back.model.entity.Post;
 import com.back.model.entity.User;
-import org.springframework.data.domain.Page;
+import com.back.model.enums.EPostStatus;
+import com.back.model.enums.EVisibility;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.awt.print.Pageable;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface IPostRepository extends JpaRepository<Post, Long>{
-    @Query("SELECT p FROM Post p WHERE p.user IN :followings ORDER BY p.createdAt DESC")
-    List<Post> findByUserInOrderByCreatedAtDesc(List<User> followings);
+    // Mỗi tác giả là một nhánh LATERAL đọc tối đa :limit dòng theo thứ tự của idx_post_user_visibility_created,
+    // nhánh bài của chính người xem đọc theo idx_post_user_status_created (gồm cả hai chế độ xem), nên chỉ phải
+    // sắp xếp lại tối đa (số tác giả + 1) * :limit dòng thay vì toàn bộ bài đăng của các tác giả
+    @Query(value = "SELECT t.* FROM (" +
+            "(SELECT lp.* FROM `user` u JOIN LATERAL (" +
+            "SELECT p.* FROM post p WHERE p.user_id = u.id AND p.visibility = 'PUBLIC' AND p.status = 'PUBLISHED' " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit) lp ON TRUE " +
+            "WHERE u.id IN (:authorIds) AND u.id <> :viewerId " +
+            "AND NOT EXISTS (SELECT 1 FROM blocked_users b WHERE " +
+            "(b.user_id = :viewerId AND b.blocked_user_id = u.id) OR (b.user_id = u.id AND b.blocked_user_id = :viewerId))) " +
+            "UNION ALL " +
+            "(SELECT p.* FROM post p WHERE p.user_id = :viewerId AND p.status = 'PUBLISHED' " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit)" +
+            ") t ORDER BY t.created_at DESC, t.id DESC LIMIT :limit", nativeQuery = true)
+    List<Post> findViewableFeedFirstPage(@Param("authorIds") List<Long> authorIds,
+                                         @Param("viewerId") Long viewerId,
+                                         @Param("limit") int limit);
 
+    @Query(value = "SELECT t.* FROM (" +
+            "(SELECT lp.* FROM `user` u JOIN LATERAL (" +
+            "SELECT p.* FROM post p WHERE p.user_id = u.id AND p.visibility = 'PUBLIC' AND p.status = 'PUBLISHED' " +
+            "AND (p.created_at < :createdAt OR (p.created_at = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit) lp ON TRUE " +
+            "WHERE u.id IN (:authorIds) AND u.id <> :viewerId " +
+            "AND NOT EXISTS (SELECT 1 FROM blocked_users b WHERE " +
+            "(b.user_id = :viewerId AND b.blocked_user_id = u.id) OR (b.user_id = u.id AND b.blocked_user_id = :viewerId))) " +
+            "UNION ALL " +
+            "(SELECT p.* FROM post p WHERE p.user_id = :viewerId AND p.status = 'PUBLISHED' " +
+            "AND (p.created_at < :createdAt OR (p.created_at = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit)" +
+            ") t ORDER BY t.created_at DESC, t.id DESC LIMIT :limit", nativeQuery = true)
+    List<Post> findViewableFeedPageBefore(@Param("authorIds") List<Long> authorIds,
+                                          @Param("viewerId") Long viewerId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          @Param("limit") int limit);
 
     @Query("SELECT p FROM Post p WHERE p.user = :currentUser ORDER BY p.createdAt DESC")
     List<Post> findByUserByCreateAtDesc(User currentUser);
 
+    @Query("SELECT p FROM Post p WHERE p.user = :user AND p.status = :status ORDER BY p.createdAt DESC")
+    List<Post> findByUserAndStatusByCreateAtDesc(@Param("user") User user, @Param("status") EPostStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.status = :to WHERE p.id = :id AND p.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") EPostStatus from, @Param("to") EPostStatus to);
+
+    @Query("SELECT p.id, p.user.id FROM Post p " +
+            "WHERE p.status = com.back.model.enums.EPostStatus.PROCESSING AND p.createdAt < :before")
+    List<Object[]> findStaleProcessing(@Param("before") LocalDateTime before);
+
     @Query("SELECT p FROM Post p LEFT JOIN FETCH p.media WHERE p IN :posts")
     List<Post> findAllWithMedia(@Param("posts") List<Post> posts);
 
+    @Query(value = "SELECT t.id, t.user_id, t.created_at, t.visibility FROM (" +
+            "SELECT p.id, p.user_id, p.created_at, p.visibility, " +
+            "ROW_NUMBER() OVER (PARTITION BY p.user_id ORDER BY p.created_at DESC, p.id DESC) AS rn " +
+            "FROM post p WHERE p.user_id IN (:userIds) AND p.status = 'PUBLISHED') t WHERE t.rn <= :limit", nativeQuery = true)
+    List<Object[]> findRecentPostKeysByUserIds(@Param("userIds") List<Long> userIds, @Param("limit") int limit);
+
+    @Query("SELECT DISTINCT p FROM Post p JOIN FETCH p.user LEFT JOIN FETCH p.media WHERE p.id IN :ids")
+    List<Post> findAllWithUserAndMediaByIdIn(@Param("ids") List<Long> ids);
+
+    boolean existsByCommentCountGreaterThan(long commentCount);
+
+    @Modifying
+    @Query(value = "UPDATE post p JOIN (SELECT c.post_id, COUNT(*) AS total FROM comment c GROUP BY c.post_id) t " +
+            "ON t.post_id = p.id SET p.comment_count = t.total WHERE p.comment_count = 0", nativeQuery = true)
+    int backfillCommentCounts();
+
+    @Query("SELECT p.id, p.reactionCount, p.commentCount FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findCounterSlice(@Param("afterId") Long afterId, Pageable pageable);
+
     @Query("SELECT COUNT(p) FROM Post p WHERE p.user = :user")
     long countPostsByUser(User user);
 
@@ -0,0 +1,24 @@
+package com.back.repository;
+
+import com.back.model.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ISchedulerLeaseRepository extends JpaRepository<SchedulerLease, String>{
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO scheduler_leases (name, owner, expires_at) VALUES (:name, '', NOW(3))",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+
+    // Giữ tiếp lease của chính mình hoặc lấy lease đã hết hạn; thời gian theo đồng hồ của database để các node không lệch nhau
+    @Modifying
+    @Query(value = "UPDATE scheduler_leases SET owner = :owner, " +
+            "expires_at = TIMESTAMPADD(MICROSECOND, :ttlMs * 1000, NOW(3)) " +
+            "WHERE name = :name AND (owner = :owner OR expires_at < NOW(3))", nativeQuery = true)
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner, @Param("ttlMs") long ttlMs);
+}
@@ -0,0 +1,17 @@
+package com.back.repository;
+
+import com.back.model.entity.TimelineBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ITimelineBackfillRepository extends JpaRepository<TimelineBackfill, Long>{
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO timeline_backfills (owner_id, backfilled_at) VALUES (:ownerId, NOW())",
+            nativeQuery = true)
+    int markBackfilled(@Param("ownerId") Long ownerId);
+}
@@ -0,0 +1,83 @@
+package com.back.repository;
+
+import com.back.model.entity.TimelineEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ITimelineEntryRepository extends JpaRepository<TimelineEntry, Long>{
+
+    @Query("SELECT t FROM TimelineEntry t WHERE t.ownerId = :ownerId ORDER BY t.createdAt DESC, t.postId DESC")
+    List<TimelineEntry> findFirstPage(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("SELECT t FROM TimelineEntry t WHERE t.ownerId = :ownerId " +
+            "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.postId < :postId)) " +
+            "ORDER BY t.createdAt DESC, t.postId DESC")
+    List<TimelineEntry> findPageBefore(@Param("ownerId") Long ownerId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("postId") Long postId,
+                                       Pageable pageable);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO timeline_entries (owner_id, post_id, author_id, created_at) " +
+            "SELECT f.follower_id, :postId, :authorId, :createdAt FROM follows f " +
+            "WHERE f.following_id = :authorId AND f.status = 'ACCEPTED'", nativeQuery = true)
+    int fanOutToFollowers(@Param("postId") Long postId,
+                          @Param("authorId") Long authorId,
+                          @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO timeline_entries (owner_id, post_id, author_id, created_at) " +
+            "SELECT f.follower_id, p.id, p.user_id, p.created_at FROM follows f JOIN (" +
+            "SELECT p.id, p.user_id, p.created_at FROM post p " +
+            "WHERE p.user_id = :authorId AND p.visibility = 'PUBLIC' AND p.status = 'PUBLISHED' " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit) p ON p.user_id = f.following_id " +
+            "WHERE f.following_id = :authorId AND f.status = 'ACCEPTED'", nativeQuery = true)
+    int fanOutRecentPosts(@Param("authorId") Long authorId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO timeline_entries (owner_id, post_id, author_id, created_at) " +
+            "VALUES (:ownerId, :postId, :authorId, :createdAt)", nativeQuery = true)
+    int insertEntry(@Param("ownerId") Long ownerId,
+                    @Param("postId") Long postId,
+                    @Param("authorId") Long authorId,
+                    @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO timeline_entries (owner_id, post_id, author_id, created_at) " +
+            "SELECT :ownerId, p.id, p.user_id, p.created_at FROM post p " +
+            "WHERE p.user_id = :authorId AND p.visibility = 'PUBLIC' AND p.status = 'PUBLISHED' " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+    int backfillFromAuthor(@Param("ownerId") Long ownerId,
+                           @Param("authorId") Long authorId,
+                           @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO timeline_entries (owner_id, post_id, author_id, created_at) " +
+            "SELECT :ownerId, p.id, p.user_id, p.created_at FROM post p " +
+            "WHERE p.status = 'PUBLISHED' AND (p.user_id = :ownerId " +
+            "OR (p.visibility = 'PUBLIC' AND p.user_id IN (" +
+            "SELECT f.following_id FROM follows f WHERE f.follower_id = :ownerId AND f.status = 'ACCEPTED'))) " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit", nativeQuery = true)
+    int backfillTimeline(@Param("ownerId") Long ownerId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerId = :ownerId AND t.authorId = :authorId")
+    int deleteByOwnerIdAndAuthorId(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.postId = :postId AND t.ownerId <> :authorId")
+    int deleteFollowerEntriesByPostId(@Param("postId") Long postId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.postId IN :postIds")
+    int deleteByPostIdIn(@Param("postIds") Collection<Long> postIds);
+}
@@ -0,0 +1,15 @@
+package com.back.repository;
+
+import com.back.model.entity.TimelinePullAuthor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ITimelinePullAuthorRepository extends JpaRepository<TimelinePullAuthor, Long>{
+
+    @Query("SELECT a.authorId FROM TimelinePullAuthor a")
+    List<Long> findAllAuthorIds();
+}
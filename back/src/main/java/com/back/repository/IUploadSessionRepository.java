@@ -0,0 +1,40 @@
+package com.back.repository;
+
+import com.back.model.entity.UploadSession;
+import com.back.model.enums.EUploadStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IUploadSessionRepository extends JpaRepository<UploadSession, String>{
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.receivedBytes = :receivedBytes " +
+            "WHERE s.id = :id AND s.receivedBytes = :offset AND s.status = com.back.model.enums.EUploadStatus.UPLOADING")
+    int advanceOffset(@Param("id") String id,
+                      @Param("offset") long offset,
+                      @Param("receivedBytes") long receivedBytes);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.status = :to WHERE s.id = :id AND s.status = :from")
+    int transition(@Param("id") String id,
+                   @Param("from") EUploadStatus from,
+                   @Param("to") EUploadStatus to);
+
+    @Modifying
+    @Query("UPDATE UploadSession s SET s.status = com.back.model.enums.EUploadStatus.ATTACHED " +
+            "WHERE s.id IN :ids AND s.ownerId = :ownerId AND s.status = com.back.model.enums.EUploadStatus.COMPLETED")
+    int markAttached(@Param("ids") Collection<String> ids, @Param("ownerId") Long ownerId);
+
+    List<UploadSession> findByExpiresAtBefore(LocalDateTime time);
+}
@@ -3,7 +3,10 @@ package com.back.repository;
 import com.back.model.entity.User;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Arrays;
@@ -23,4 +26,7 @@ public interface IUserRepository extends JpaRepository<User,Long>{
     boolean existsByPhoneNumber(String phoneNumber);
 
     List<User> findByUsernameContainingIgnoreCase(String username);
+
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    Slice<Long> findAllIds(Pageable pageable);
 }
@@ -0,0 +1,33 @@
+package com.back.security.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "chat.broker")
+public class ChatBrokerProperties {
+    private Mode mode = Mode.SIMPLE;
+    private String relayHost = "localhost";
+    private int relayPort = 61613;
+    private String clientLogin = "guest";
+    private String clientPasscode = "guest";
+    private String systemLogin = "guest";
+    private String systemPasscode = "guest";
+    private String virtualHost;
+    private long heartbeatMs = 10000;
+    private Embedded embedded = new Embedded();
+
+    public enum Mode {
+        SIMPLE, RELAY
+    }
+
+    @Data
+    public static class Embedded {
+        private boolean enabled = false;
+        private String host = "127.0.0.1";
+        private int port = 61613;
+        private String dataDir = "./artemis";
+    }
+}
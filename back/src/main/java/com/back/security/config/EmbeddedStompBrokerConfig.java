@@ -0,0 +1,56 @@
+package com.back.security.config;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.config.impl.SecurityConfiguration;
+import org.apache.activemq.artemis.core.security.Role;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.apache.activemq.artemis.spi.core.security.ActiveMQSecurityManagerImpl;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+/**
+ * Broker STOMP Artemis chạy trong JVM, dùng thay broker thật khi chạy local. Chỉ bật trên một node,
+ * các node còn lại relay tới node đó qua chat.broker.relay-host; khi đó phải đặt chat.broker.embedded.host
+ * thành địa chỉ mạng nội bộ (mặc định chỉ nghe 127.0.0.1). Chỉ tài khoản system/client đã cấu hình mới kết nối được.
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "chat.broker.embedded", name = "enabled", havingValue = "true")
+public class EmbeddedStompBrokerConfig {
+
+    private static final String RELAY_ROLE = "chat-relay";
+
+    private final ChatBrokerProperties chatBrokerProperties;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker() throws Exception {
+        ChatBrokerProperties.Embedded embedded = chatBrokerProperties.getEmbedded();
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(true);
+        configuration.putSecurityRoles("#", Set.of(
+                new Role(RELAY_ROLE, true, true, false, false, true, true, false, false, true, false)));
+        configuration.setJournalDirectory(embedded.getDataDir() + "/journal");
+        configuration.setBindingsDirectory(embedded.getDataDir() + "/bindings");
+        configuration.setLargeMessagesDirectory(embedded.getDataDir() + "/large-messages");
+        configuration.setPagingDirectory(embedded.getDataDir() + "/paging");
+        // Tin nhắn gửi tới /topic/** được phát cho mọi subscriber thay vì chia lượt như queue
+        configuration.addAcceptorConfiguration("stomp", "tcp://" + embedded.getHost() + ":" + embedded.getPort()
+                + "?protocols=STOMP;multicastPrefix=/topic/");
+
+        SecurityConfiguration users = new SecurityConfiguration();
+        users.addUser(chatBrokerProperties.getSystemLogin(), chatBrokerProperties.getSystemPasscode());
+        users.addRole(chatBrokerProperties.getSystemLogin(), RELAY_ROLE);
+        users.addUser(chatBrokerProperties.getClientLogin(), chatBrokerProperties.getClientPasscode());
+        users.addRole(chatBrokerProperties.getClientLogin(), RELAY_ROLE);
+
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        broker.setSecurityManager(new ActiveMQSecurityManagerImpl(users));
+        return broker;
+    }
+}
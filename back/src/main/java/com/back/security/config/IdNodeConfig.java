@@ -0,0 +1,34 @@
+package com.back.security.config;
+
+import com.back.utils.id.IdProperties;
+import com.back.utils.id.TsidGenerator;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+public class IdNodeConfig {
+
+    private final IdProperties idProperties;
+
+    // Node id suy từ hostname/pid chỉ có 32 giá trị, hai instance dễ trùng node và sinh trùng id trong cùng mili giây
+    @PostConstruct
+    public void validateNodeId() {
+        if (idProperties.isMultiNode() && idProperties.getNodeId() == null) {
+            throw new IllegalStateException("app.id.multi-node=true cần đặt app.id.node-id khác nhau cho mỗi instance");
+        }
+    }
+
+    // TsidGenerator do Hibernate tạo nên đọc node id từ setting của Hibernate
+    @Bean
+    public HibernatePropertiesCustomizer idNodeHibernateCustomizer() {
+        return properties -> {
+            if (idProperties.getNodeId() != null) {
+                properties.put(TsidGenerator.NODE_ID_SETTING, idProperties.getNodeId());
+            }
+        };
+    }
+}
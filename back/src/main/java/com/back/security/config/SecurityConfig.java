@@ -48,6 +48,8 @@ public class SecurityConfig {
                                 "/api/v1/auths/refresh"
                         ).permitAll()
 
+                        .requestMatchers(HttpMethod.GET, "/media/**").permitAll()
+
                         .requestMatchers(
                                 "/api/v1/accounts/**",
                                 "/api/v1/auths/logout"
@@ -1,21 +1,65 @@
 package com.back.security.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // Kênh giữa các node qua broker, client không được subscribe hay gửi vào
+    private static final String INTERNAL_PREFIX = "/topic/internal.";
+
+    private final ChatBrokerProperties chatBrokerProperties;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic"); // nơi client subscribe
+        if (chatBrokerProperties.getMode() == ChatBrokerProperties.Mode.RELAY) {
+            // Mọi node relay qua cùng một broker STOMP nên tin nhắn tới được client ở node khác
+            config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(chatBrokerProperties.getRelayHost())
+                    .setRelayPort(chatBrokerProperties.getRelayPort())
+                    .setClientLogin(chatBrokerProperties.getClientLogin())
+                    .setClientPasscode(chatBrokerProperties.getClientPasscode())
+                    .setSystemLogin(chatBrokerProperties.getSystemLogin())
+                    .setSystemPasscode(chatBrokerProperties.getSystemPasscode())
+                    .setVirtualHost(chatBrokerProperties.getVirtualHost())
+                    .setSystemHeartbeatSendInterval(chatBrokerProperties.getHeartbeatMs())
+                    .setSystemHeartbeatReceiveInterval(chatBrokerProperties.getHeartbeatMs());
+        } else {
+            config.enableSimpleBroker("/topic"); // nơi client subscribe
+        }
         config.setApplicationDestinationPrefixes("/app"); // nơi client gửi
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+                String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+                if ((type == SimpMessageType.SUBSCRIBE || type == SimpMessageType.MESSAGE)
+                        && destination != null && destination.startsWith(INTERNAL_PREFIX)) {
+                    throw new MessageDeliveryException(message, "Không được truy cập " + destination);
+                }
+                return message;
+            }
+        });
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws")
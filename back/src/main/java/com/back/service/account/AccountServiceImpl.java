@@ -4,14 +4,17 @@ import com.back.model.dto.request.ChangePasswordRequest;
 import com.back.model.dto.request.ProfileRequest;
 import com.back.model.dto.response.APIResponse;
 import com.back.model.dto.response.ProfileResponse;
+import com.back.model.entity.MediaBlob;
 import com.back.model.entity.User;
 import com.back.model.enums.EFollowStatus;
 import com.back.model.enums.EGender;
+import com.back.model.enums.EMediaKind;
+import com.back.model.enums.EMediaType;
 import com.back.repository.IFollowRepository;
 import com.back.repository.IPostRepository;
 import com.back.repository.IUserRepository;
 import com.back.security.principal.CustomUserDetails;
-import com.back.service.cloudinary.CloudinaryService;
+import com.back.service.storage.IMediaBlobService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -32,7 +35,7 @@ import java.util.NoSuchElementException;
 public class AccountServiceImpl implements IAccountSerivce{
 
     private final IUserRepository userRepository;
-    private final CloudinaryService cloudinaryService;
+    private final IMediaBlobService mediaBlobService;
     private final PasswordEncoder passwordEncoder;
     private final IFollowRepository followRepository;
     private final IPostRepository postRepository;
@@ -145,8 +148,10 @@ public class AccountServiceImpl implements IAccountSerivce{
                 .orElseThrow(() -> new NoSuchElementException("Không tìm thấy người dùng"));
 
         try {
-            String avatarUrl = cloudinaryService.uploadImage(avatar);
-            user.setAvatarUrl(avatarUrl);
+            MediaBlob blob = mediaBlobService.store(avatar, EMediaType.IMAGE, EMediaKind.AVATAR);
+            user.setAvatarUrl(blob.getUrl());
+            user.setAvatarVariants(blob.getVariants());
+            user.setAvatarPlaceholder(blob.getPlaceholder());
             userRepository.save(user);
         } catch (IOException e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Tải lên ảnh thất bại");
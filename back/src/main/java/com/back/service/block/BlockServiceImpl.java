@@ -4,10 +4,14 @@ import com.back.model.dto.response.APIResponse;
 import com.back.model.dto.response.ProfileResponse;
 import com.back.model.entity.BlockedUser;
 import com.back.model.entity.User;
+import com.back.model.enums.ECounterScope;
+import com.back.model.enums.EFollowStatus;
 import com.back.repository.IBlockedUserRepository;
 import com.back.repository.IFollowRepository;
 import com.back.repository.IUserRepository;
 import com.back.security.principal.CustomUserDetails;
+import com.back.service.counter.IShardedCounterService;
+import com.back.service.timeline.ITimelineService;
 import com.back.service.block.IBlockService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,6 +29,8 @@ public class BlockServiceImpl implements IBlockService{
     private final IUserRepository userRepository;
     private final IBlockedUserRepository blockedUserRepository;
     private final IFollowRepository followRepository;
+    private final ITimelineService timelineService;
+    private final IShardedCounterService shardedCounterService;
 
     @Override
     public APIResponse<Void> blockUser(Long userId) {
@@ -58,8 +64,11 @@ public class BlockServiceImpl implements IBlockService{
                     .build();
         }
 
-        followRepository.deleteByFollowerAndFollowing(blocker, blocked);
-        followRepository.deleteByFollowerAndFollowing(blocked, blocker);
+        removeFollows(blocker, blocked);
+        removeFollows(blocked, blocker);
+
+        timelineService.removeAuthorFromTimeline(blocker.getId(), blocked.getId());
+        timelineService.removeAuthorFromTimeline(blocked.getId(), blocker.getId());
 
         blockedUserRepository.save(BlockedUser.builder()
                 .user(blocker)
@@ -72,6 +81,15 @@ public class BlockServiceImpl implements IBlockService{
                 .build();
     }
 
+    private void removeFollows(User follower, User following) {
+        long accepted = followRepository.deleteByFollowerAndFollowing(follower, following).stream()
+                .filter(follow -> follow.getStatus() == EFollowStatus.ACCEPTED)
+                .count();
+        if (accepted > 0) {
+            shardedCounterService.increment(ECounterScope.USER_FOLLOWER, following.getId(), -accepted);
+        }
+    }
+
     @Override
     public APIResponse<Void> unblockUser(Long userId) {
         CustomUserDetails userDetails = (CustomUserDetails) SecurityContextHolder.getContext()
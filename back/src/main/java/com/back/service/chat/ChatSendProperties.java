@@ -0,0 +1,18 @@
+package com.back.service.chat;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "chat.send")
+public class ChatSendProperties {
+    private boolean writeBehind = true;
+    private int bufferCapacity = 10000;
+    private int batchSize = 200;
+    private long flushIntervalMs = 5;
+    private long offerTimeoutMs = 50;
+    private int maxRetries = 3;
+    private long shutdownTimeoutMs = 10000;
+}
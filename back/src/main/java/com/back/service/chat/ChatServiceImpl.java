@@ -4,11 +4,23 @@ import com.back.model.dto.request.MessageMediaRequest;
 import com.back.model.dto.request.MessageRequest;
 import com.back.model.dto.response.*;
 import com.back.model.entity.*;
+import com.back.model.enums.EMediaKind;
+import com.back.model.enums.EMediaType;
 import com.back.model.enums.EReactionType;
+import com.back.model.event.ConversationReadStateChangedEvent;
+import com.back.model.mapper.UserSummaryMapper;
 import com.back.repository.*;
 import com.back.security.principal.CustomUserDetails;
-import com.back.service.cloudinary.CloudinaryService;
+import com.back.service.storage.IMediaBlobService;
+import com.back.service.upload.IUploadSessionService;
+import com.back.utils.pagination.FeedCursor;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
@@ -18,22 +30,37 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class ChatServiceImpl implements IChatService {
 
+    private static final int MAX_MESSAGE_LIMIT = 100;
+    private static final int MAX_INBOX_LIMIT = 50;
+    private static final int PREVIEW_LENGTH = 120;
+    private static final int MAX_CONTENT_LENGTH = 255;
+    private static final String MEDIA_PREVIEW = "[Media]";
+
     private final IMessageRepository messageRepository;
     private final IMessageMediaRepository mediaRepository;
     private final IConversationRepository conversationRepository;
     private final IUserRepository userRepository;
     private final IMessageReactionRepository reactionRepository;
-    private final CloudinaryService cloudinaryService;
+    private final IMediaBlobService mediaBlobService;
     private final INotificationRepository notificationRepository;
+    private final IUploadSessionService uploadSessionService;
+    private final IConversationMemberRepository conversationMemberRepository;
+    private final IUnreadCounterService unreadCounterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MessageWriteBehindBuffer messageWriteBehindBuffer;
 
     @Override
     @Transactional
@@ -52,6 +79,7 @@ public class ChatServiceImpl implements IChatService {
                 .build();
 
         messageRepository.save(message);
+        recordMessageSent(conversation, sender, message);
 
         sendMessageNotifications(conversation, sender);
 
@@ -66,7 +94,8 @@ public class ChatServiceImpl implements IChatService {
     @Override
     @Transactional
     public APIResponse<MessageResponse> sendMedia(MessageMediaRequest request) {
-        if (request.getMediaFiles() == null || request.getMediaFiles().isEmpty()) {
+        List<MultipartFile> mediaFiles = request.getMediaFiles() != null ? request.getMediaFiles() : List.of();
+        if (mediaFiles.isEmpty() && (request.getUploadIds() == null || request.getUploadIds().isEmpty())) {
             throw new IllegalArgumentException("Danh sách media không được rỗng");
         }
 
@@ -84,16 +113,16 @@ public class ChatServiceImpl implements IChatService {
                 .build();
         messageRepository.save(message);
 
-        List<MessageMedia> mediaList = request.getMediaFiles().stream()
+        List<MessageMedia> mediaList = mediaFiles.stream()
                 .map(file -> {
                     try {
                         String uploadedUrl;
                         String type;
                         if (file.getContentType() != null && file.getContentType().startsWith("video")) {
-                            uploadedUrl = cloudinaryService.uploadVideo(file);
+                            uploadedUrl = mediaBlobService.store(file, EMediaType.VIDEO, EMediaKind.CHAT).getUrl();
                             type = "video";
                         } else {
-                            uploadedUrl = cloudinaryService.uploadImage(file);
+                            uploadedUrl = mediaBlobService.store(file, EMediaType.IMAGE, EMediaKind.CHAT).getUrl();
                             type = "image";
                         }
                         return MessageMedia.builder()
@@ -106,10 +135,17 @@ public class ChatServiceImpl implements IChatService {
                     }
                 })
                 .collect(Collectors.toList());
+        uploadSessionService.attach(sender.getId(), request.getUploadIds()).forEach(upload ->
+                mediaList.add(MessageMedia.builder()
+                        .url(upload.getMediaUrl())
+                        .type(upload.getMediaType().name().toLowerCase())
+                        .message(message)
+                        .build()));
 
         mediaRepository.saveAll(mediaList);
         message.setMediaList(mediaList);
         messageRepository.save(message);
+        recordMessageSent(conversation, sender, message);
 
         sendMessageNotifications(conversation, sender);
 
@@ -121,6 +157,22 @@ public class ChatServiceImpl implements IChatService {
                 .build();
     }
 
+    private void recordMessageSent(Conversation conversation, User sender, Message message) {
+        conversationRepository.advanceLastMessage(conversation.getId(), message.getId(), message.getCreatedAt(),
+                previewOf(message.getContent()));
+        conversationMemberRepository.incrementUnread(conversation.getId(), sender.getId());
+        conversationMemberRepository.markRead(conversation.getId(), sender.getId(), message.getId());
+        eventPublisher.publishEvent(new ConversationReadStateChangedEvent(conversation.getId(),
+                conversation.getParticipants().stream().map(User::getId).toList()));
+    }
+
+    static String previewOf(String content) {
+        if (content == null || content.isBlank()) {
+            return MEDIA_PREVIEW;
+        }
+        return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+    }
+
     private void sendMessageNotifications(Conversation conversation, User sender) {
         List<Notification> notifications = conversation.getParticipants().stream()
                 .filter(u -> !u.getId().equals(sender.getId()))
@@ -142,12 +194,7 @@ public class ChatServiceImpl implements IChatService {
                 .content(message.getContent())
                 .createdAt(message.getCreatedAt())
                 .conversationId(message.getConversation().getId())
-                .sender(UserSummaryResponse.builder()
-                        .id(message.getSender().getId())
-                        .username(message.getSender().getUsername())
-                        .fullName(message.getSender().getFullName())
-                        .avatarUrl(message.getSender().getAvatarUrl())
-                        .build())
+                .sender(UserSummaryMapper.mapToUserSummary(message.getSender()))
                 .mediaUrls(Optional.ofNullable(message.getMediaList())
                         .orElse(List.of())
                         .stream()
@@ -160,10 +207,25 @@ public class ChatServiceImpl implements IChatService {
 
 
     @Override
+    @Transactional
     public APIResponse<Void> deleteMessage(Long messageId){
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new NoSuchElementException("Không tìm thấy tin nhắn"));
+        Conversation conversation = message.getConversation();
+        conversationMemberRepository.decrementUnread(conversation.getId(), message.getSender().getId(), messageId);
         messageRepository.delete(message);
+        messageRepository.flush();
+        eventPublisher.publishEvent(new ConversationReadStateChangedEvent(conversation.getId(),
+                conversation.getParticipants().stream().map(User::getId).toList()));
+
+        if (messageId.equals(conversation.getLastMessageId())) {
+            Message latest = messageRepository.findLatestByConversation(conversation.getId(), PageRequest.of(0, 1))
+                    .stream().findFirst().orElse(null);
+            conversationRepository.resetLastMessage(conversation.getId(),
+                    latest != null ? latest.getId() : null,
+                    latest != null ? latest.getCreatedAt() : conversation.getCreatedAt(),
+                    latest != null ? previewOf(latest.getContent()) : null);
+        }
         return APIResponse.<Void>builder()
                 .message("Xóa tin nhắn thành công")
                 .build();
@@ -214,12 +276,7 @@ public class ChatServiceImpl implements IChatService {
                 .content(message.getContent())
                 .createdAt(message.getCreatedAt())
                 .conversationId(message.getConversation().getId())
-                .sender(UserSummaryResponse.builder()
-                        .id(message.getSender().getId())
-                        .username(message.getSender().getUsername())
-                        .fullName(message.getSender().getFullName())
-                        .avatarUrl(message.getSender().getAvatarUrl())
-                        .build())
+                .sender(UserSummaryMapper.mapToUserSummary(message.getSender()))
                 .mediaUrls(message.getMediaList() != null
                         ? message.getMediaList().stream().map(MessageMedia::getUrl).toList()
                         : List.of())
@@ -250,17 +307,12 @@ public class ChatServiceImpl implements IChatService {
         User currentUser = userRepository.findById(currentUserDetails.getId())
                 .orElseThrow(() -> new NoSuchElementException("Không tìm thấy người dùng"));
 
-        List<Conversation> conversations = conversationRepository.findByParticipantsContaining(currentUser);
+        List<Conversation> conversations = conversationRepository.findByMemberUser(currentUser);
 
         List<ConversationResponse> responses = conversations.stream()
                 .map(conversation -> {
                     List<UserSummaryResponse> participants = conversation.getParticipants().stream()
-                            .map(u -> UserSummaryResponse.builder()
-                                    .id(u.getId())
-                                    .username(u.getUsername())
-                                    .fullName(u.getFullName())
-                                    .avatarUrl(u.getAvatarUrl())
-                                    .build())
+                            .map(u -> UserSummaryMapper.mapToUserSummary(u))
                             .toList();
 
                     List<Message> sortedMessages = conversation.getMessages().stream()
@@ -271,12 +323,7 @@ public class ChatServiceImpl implements IChatService {
                             .map(m -> MessageResponse.builder()
                                     .id(m.getId())
                                     .conversationId(conversation.getId())
-                                    .sender(UserSummaryResponse.builder()
-                                            .id(m.getSender().getId())
-                                            .username(m.getSender().getUsername())
-                                            .fullName(m.getSender().getFullName())
-                                            .avatarUrl(m.getSender().getAvatarUrl())
-                                            .build())
+                                    .sender(UserSummaryMapper.mapToUserSummary(m.getSender()))
                                     .content(m.getContent())
                                     .mediaUrls(Optional.ofNullable(m.getMediaList())
                                             .orElse(List.of())
@@ -319,37 +366,215 @@ public class ChatServiceImpl implements IChatService {
     }
 
     @Override
-    public APIResponse<List<MessageResponse>> getMessagesByConversation(Long conversationId) {
-        Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new NoSuchElementException("Không tìm thấy hộp thoại"));
+    @Transactional(readOnly = true)
+    public APIResponse<List<ConversationResponse>> getInbox(String cursor, int limit) {
+        CustomUserDetails currentUserDetails = (CustomUserDetails) SecurityContextHolder
+                .getContext().getAuthentication()
+                .getPrincipal();
+
+        int pageSize = Math.clamp(limit, 1, MAX_INBOX_LIMIT);
+        FeedCursor inboxCursor = cursor == null || cursor.isBlank() ? null : FeedCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Long> ids = inboxCursor == null
+                ? conversationRepository.findInboxFirstPage(currentUserDetails.getId(), pageable)
+                : conversationRepository.findInboxPageBefore(
+                        currentUserDetails.getId(), inboxCursor.createdAt(), inboxCursor.id(), pageable);
+
+        boolean hasNext = ids.size() > pageSize;
+        List<Long> pageIds = hasNext ? ids.subList(0, pageSize) : ids;
+
+        Map<Long, Conversation> conversationsById = pageIds.isEmpty() ? Map.of()
+                : conversationRepository.findWithParticipantsByIdIn(pageIds).stream()
+                        .collect(Collectors.toMap(Conversation::getId, c -> c));
+        List<Conversation> page = pageIds.stream()
+                .map(conversationsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        List<ConversationResponse> data = page.stream()
+                .map(conversation -> {
+                    ConversationMember viewer = conversation.getMembers().stream()
+                            .filter(m -> m.getId().getUserId().equals(currentUserDetails.getId()))
+                            .findFirst()
+                            .orElse(null);
+                    return ConversationResponse.builder()
+                            .id(conversation.getId())
+                            .name(conversation.getName())
+                            .createdAt(conversation.getCreatedAt())
+                            .isGroup(conversation.isGroup())
+                            .participants(conversation.getParticipants().stream()
+                                    .map(UserSummaryMapper::mapToUserSummary)
+                                    .toList())
+                            .lastMessageId(conversation.getLastMessageId())
+                            .lastMessageAt(conversation.getLastMessageAt())
+                            .lastMessagePreview(conversation.getLastMessagePreview())
+                            .lastReadMessageId(viewer != null ? viewer.getLastReadMessageId() : null)
+                            .unreadCount(viewer != null ? viewer.getUnreadCount() : 0)
+                            .build();
+                })
+                .toList();
+
+        String nextCursor = null;
+        if (hasNext && !page.isEmpty()) {
+            Conversation last = page.getLast();
+            nextCursor = new FeedCursor(last.getLastMessageAt(), last.getId()).encode();
+        }
+
+        return APIResponse.<List<ConversationResponse>>builder()
+                .message("Lấy danh sách hội thoại thành công")
+                .data(data)
+                .meta(PaginationResponse.builder()
+                        .pageSize(pageSize)
+                        .nextCursor(nextCursor)
+                        .hasNext(nextCursor != null)
+                        .build())
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public APIResponse<Void> markConversationRead(Long conversationId, Long messageId) {
+        CustomUserDetails currentUserDetails = (CustomUserDetails) SecurityContextHolder
+                .getContext().getAuthentication()
+                .getPrincipal();
 
-        List<MessageResponse> messages = conversation.getMessages().stream()
-                .sorted((m1, m2) -> m1.getCreatedAt().compareTo(m2.getCreatedAt()))
+        if (!conversationMemberRepository.existsById(new ConversationMemberId(conversationId, currentUserDetails.getId()))) {
+            throw new NoSuchElementException("Không tìm thấy hộp thoại");
+        }
+
+        Long readUpTo = messageId;
+        if (readUpTo == null) {
+            readUpTo = conversationRepository.findById(conversationId)
+                    .map(Conversation::getLastMessageId)
+                    .orElse(null);
+        }
+        if (readUpTo != null && conversationMemberRepository.markRead(conversationId, currentUserDetails.getId(), readUpTo) > 0) {
+            eventPublisher.publishEvent(new ConversationReadStateChangedEvent(conversationId, List.of(currentUserDetails.getId())));
+        }
+
+        return APIResponse.<Void>builder()
+                .message("Đã đánh dấu hội thoại là đã đọc")
+                .build();
+    }
+
+    @Override
+    public APIResponse<Long> getUnreadTotal() {
+        CustomUserDetails currentUserDetails = (CustomUserDetails) SecurityContextHolder
+                .getContext().getAuthentication()
+                .getPrincipal();
+
+        return APIResponse.<Long>builder()
+                .message("Lấy số tin nhắn chưa đọc thành công")
+                .data(unreadCounterService.totalUnread(currentUserDetails.getId()))
+                .build();
+    }
+
+    @Override
+    public MessageResponse sendRealtime(Long senderId, MessageRequest request) {
+        if (request.getConversationId() == null || request.getContent() == null || request.getContent().isBlank()) {
+            throw new IllegalArgumentException("Nội dung tin nhắn không được để trống");
+        }
+        if (request.getContent().length() > MAX_CONTENT_LENGTH) {
+            throw new IllegalArgumentException("Tin nhắn không được quá " + MAX_CONTENT_LENGTH + " ký tự");
+        }
+        List<Long> memberIds = conversationMemberRepository.findUserIdsByConversationId(request.getConversationId());
+        if (!memberIds.contains(senderId)) {
+            throw new NoSuchElementException("Không tìm thấy hộp thoại");
+        }
+        User sender = userRepository.findById(senderId)
+                .orElseThrow(() -> new NoSuchElementException("Không tìm thấy người dùng"));
+
+        MessageWriteBehindBuffer.PendingMessage pending = new MessageWriteBehindBuffer.PendingMessage(
+                MessageWriteBehindBuffer.nextId(),
+                request.getConversationId(),
+                senderId,
+                sender.getFullName(),
+                memberIds.stream().filter(id -> !id.equals(senderId)).toList(),
+                request.getContent(),
+                LocalDateTime.now(),
+                request.getClientMessageId());
+        messageWriteBehindBuffer.submit(pending);
+
+        return MessageResponse.builder()
+                .id(pending.id())
+                .conversationId(pending.conversationId())
+                .sender(UserSummaryMapper.mapToUserSummary(sender))
+                .content(pending.content())
+                .createdAt(pending.createdAt())
+                .mediaUrls(List.of())
+                .reactions(List.of())
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLastMessages() {
+        int updated = conversationRepository.backfillLastMessages();
+        if (updated > 0) {
+            log.info("Cập nhật tin nhắn cuối cho {} hội thoại", updated);
+        }
+        // Hội thoại chưa có tin nhắn xếp theo thời điểm tạo, cột không bao giờ null để inbox đi theo index
+        conversationRepository.backfillLastMessageAt();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public APIResponse<List<MessageResponse>> getMessagesByConversation(Long conversationId, Long before, int limit) {
+        CustomUserDetails currentUserDetails = (CustomUserDetails) SecurityContextHolder
+                .getContext().getAuthentication()
+                .getPrincipal();
+
+        // Người ngoài hộp thoại nhận 404 như hộp thoại không tồn tại, không lộ id nào có thật
+        if (!conversationMemberRepository.existsById(new ConversationMemberId(conversationId, currentUserDetails.getId()))) {
+            throw new NoSuchElementException("Không tìm thấy hộp thoại");
+        }
+
+        int pageSize = Math.clamp(limit, 1, MAX_MESSAGE_LIMIT);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Message> messages = before == null
+                ? messageRepository.findLatestByConversation(conversationId, pageable)
+                : messageRepository.findByConversationBefore(conversationId, before, pageable);
+
+        boolean hasNext = messages.size() > pageSize;
+        List<Message> page = new ArrayList<>(hasNext ? messages.subList(0, pageSize) : messages);
+        Collections.reverse(page);
+
+        List<Long> messageIds = page.stream().map(Message::getId).toList();
+        Map<Long, List<MessageMedia>> mediaByMessage = messageIds.isEmpty() ? Map.of()
+                : mediaRepository.findByMessageIds(messageIds).stream()
+                        .collect(Collectors.groupingBy(media -> media.getMessage().getId()));
+        Map<Long, List<MessageReaction>> reactionsByMessage = messageIds.isEmpty() ? Map.of()
+                : reactionRepository.findByMessageIds(messageIds).stream()
+                        .collect(Collectors.groupingBy(reaction -> reaction.getMessage().getId()));
+
+        List<MessageResponse> data = page.stream()
                 .map(message -> MessageResponse.builder()
                         .id(message.getId())
                         .content(message.getContent())
                         .createdAt(message.getCreatedAt())
-                        .conversationId(message.getConversation().getId())
-                        .sender(UserSummaryResponse.builder()
-                                .id(message.getSender().getId())
-                                .username(message.getSender().getUsername())
-                                .fullName(message.getSender().getFullName())
-                                .avatarUrl(message.getSender().getAvatarUrl())
-                                .build())
-                        .mediaUrls(message.getMediaList() != null ? message.getMediaList().stream().map(MessageMedia::getUrl).toList() : List.of())
-                        .reactions(message.getReactions() != null ? message.getReactions().stream().map(r ->
-                                MessageReactionResponse.builder()
+                        .conversationId(conversationId)
+                        .sender(UserSummaryMapper.mapToUserSummary(message.getSender()))
+                        .mediaUrls(mediaByMessage.getOrDefault(message.getId(), List.of()).stream()
+                                .map(MessageMedia::getUrl)
+                                .toList())
+                        .reactions(reactionsByMessage.getOrDefault(message.getId(), List.of()).stream()
+                                .map(r -> MessageReactionResponse.builder()
                                         .id(r.getId())
                                         .userId(r.getUser().getId())
                                         .username(r.getUser().getUsername())
                                         .type(r.getType())
-                                        .build()).toList() : List.of())
+                                        .build())
+                                .toList())
                         .build())
                 .toList();
 
         return APIResponse.<List<MessageResponse>>builder()
                 .message("Lấy tin nhắn hộp thoại thành công")
-                .data(messages)
+                .data(data)
+                .meta(PaginationResponse.builder()
+                        .pageSize(pageSize)
+                        .nextCursor(hasNext ? String.valueOf(page.getFirst().getId()) : null)
+                        .hasNext(hasNext)
+                        .build())
                 .build();
     }
 }
@@ -0,0 +1,12 @@
+package com.back.service.chat;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "chat.unread")
+public class ChatUnreadProperties {
+    private long cacheTtlMs = 30000;
+}
@@ -16,6 +16,10 @@ public interface IChatService {
     APIResponse<Void> deleteMessage(Long messageId);
     APIResponse<MessageResponse> reactMessage(Long messageId, EReactionType type);
     APIResponse<List<ConversationResponse>> getMyConversations();
-    APIResponse<List<MessageResponse>> getMessagesByConversation(Long conversationId);
+    APIResponse<List<ConversationResponse>> getInbox(String cursor, int limit);
+    APIResponse<Void> markConversationRead(Long conversationId, Long messageId);
+    APIResponse<Long> getUnreadTotal();
+    MessageResponse sendRealtime(Long senderId, MessageRequest request);
+    APIResponse<List<MessageResponse>> getMessagesByConversation(Long conversationId, Long before, int limit);
 }
 
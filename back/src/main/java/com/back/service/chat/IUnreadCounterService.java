@@ -0,0 +1,5 @@
+package com.back.service.chat;
+
+public interface IUnreadCounterService{
+    long totalUnread(Long userId);
+}
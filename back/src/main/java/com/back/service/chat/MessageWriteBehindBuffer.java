@@ -0,0 +1,297 @@
+package com.back.service.chat;
+
+import com.back.model.dto.response.MessageAckResponse;
+import com.back.model.enums.EMessageDeliveryStatus;
+import com.back.model.event.ConversationReadStateChangedEvent;
+import com.back.utils.id.Tsid;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hàng đợi ghi sau cho tin nhắn gửi qua STOMP /app/chat.send.
+ *
+ * <p>Ack gửi về /topic/users/{senderId}/chat.ack:
+ * <ul>
+ *     <li>ACCEPTED: tin nhắn đã có id và đã vào hàng đợi, được phát ngay cho hội thoại nhưng chưa nằm trong DB.</li>
+ *     <li>PERSISTED: batch chứa tin nhắn đã commit (tin nhắn, thông báo, tin nhắn cuối, số chưa đọc).</li>
+ *     <li>FAILED: batch vẫn lỗi sau chat.send.max-retries lần thử, tin nhắn đã phát nhưng không được lưu; client nên gửi lại.</li>
+ *     <li>REJECTED: tin nhắn không hợp lệ hoặc hàng đợi đầy, tin nhắn không được phát.</li>
+ * </ul>
+ * Ack chỉ là thông báo tốt nhất có thể: lỗi khi gửi ack được ghi log, không làm đổi trạng thái hay ghi lại batch.
+ *
+ * <p>Độ bền: khi tắt ứng dụng bình thường hàng đợi được flush hết. Nếu JVM chết đột ngột, các tin nhắn đã ACCEPTED
+ * nhưng chưa PERSISTED (tối đa một batch cùng phần còn trong hàng đợi) sẽ mất dù người nhận đã thấy chúng.
+ * Đặt chat.send.write-behind=false để ghi đồng bộ trước khi phát, khi đó ack đầu tiên là PERSISTED.
+ * Khi hàng đợi đầy quá chat.send.offer-timeout-ms, tin nhắn bị từ chối (REJECTED) thay vì chặn thread STOMP.
+ */
+@Slf4j
+@Component
+public class MessageWriteBehindBuffer {
+
+    private static final String INSERT_MESSAGE =
+            "INSERT INTO message (id, content, created_at, conversation_id, user_id) VALUES (?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE id = id";
+    private static final String INSERT_NOTIFICATION =
+            "INSERT INTO notification (id, message, is_read, created_at, receiver_id, sender_id, conversation_id) " +
+                    "VALUES (?, ?, false, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE id = id";
+    private static final String ADVANCE_LAST_MESSAGE =
+            "UPDATE conversation SET last_message_id = ?, last_message_at = ?, last_message_preview = ? " +
+                    "WHERE id = ? AND (last_message_id IS NULL OR last_message_id < ?)";
+    private static final String INCREMENT_UNREAD =
+            "UPDATE conversation_users SET unread_count = unread_count + ? WHERE conversation_id = ? AND user_id <> ?";
+    private static final String ADVANCE_SENDER_READ =
+            "UPDATE conversation_users SET last_read_message_id = ?, unread_count = " +
+                    "(SELECT COUNT(*) FROM message m WHERE m.conversation_id = ? AND m.id > ? AND m.user_id <> ?) " +
+                    "WHERE conversation_id = ? AND user_id = ? AND (last_read_message_id IS NULL OR last_read_message_id < ?)";
+
+    public record PendingMessage(Long id, Long conversationId, Long senderId, String senderName,
+                                 List<Long> receiverIds, String content, LocalDateTime createdAt,
+                                 String clientMessageId) {
+    }
+
+    private record PreparedBatch(List<Object[]> messages, List<Object[]> notifications, List<Object[]> lastMessages,
+                                 List<Object[]> unreadIncrements, List<Object[]> senderReads,
+                                 Map<Long, Set<Long>> affectedUsers) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChatSendProperties chatSendProperties;
+    private final BlockingQueue<PendingMessage> queue;
+    private final Thread worker;
+    private final Counter persistedCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+    private volatile boolean running = true;
+
+    public MessageWriteBehindBuffer(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    SimpMessagingTemplate messagingTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    ChatSendProperties chatSendProperties,
+                                    MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chatSendProperties = chatSendProperties;
+        this.queue = new ArrayBlockingQueue<>(chatSendProperties.getBufferCapacity());
+        Gauge.builder("chat.writebehind.queue.size", queue, BlockingQueue::size)
+                .description("Số tin nhắn đang chờ ghi vào DB")
+                .register(meterRegistry);
+        this.persistedCounter = Counter.builder("chat.writebehind.persisted")
+                .description("Số tin nhắn đã ghi theo batch")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("chat.writebehind.failed")
+                .description("Số tin nhắn ghi thất bại sau khi đã thử lại")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("chat.writebehind.flush")
+                .description("Thời gian ghi một batch tin nhắn")
+                .register(meterRegistry);
+        this.worker = Thread.ofPlatform().name("chat-write-behind").daemon(true).unstarted(this::run);
+        if (chatSendProperties.isWriteBehind()) {
+            worker.start();
+        }
+    }
+
+    public static Long nextId() {
+        return Tsid.get(null).next();
+    }
+
+    public void submit(PendingMessage message) {
+        if (!chatSendProperties.isWriteBehind()) {
+            PreparedBatch prepared = prepare(List.of(message));
+            persist(prepared);
+            publishReadStateChanged(prepared);
+            ack(message, EMessageDeliveryStatus.PERSISTED, null);
+            return;
+        }
+        boolean accepted;
+        try {
+            accepted = running && queue.offer(message, chatSendProperties.getOfferTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            throw new IllegalStateException("Hệ thống đang quá tải, vui lòng gửi lại tin nhắn");
+        }
+        ack(message, EMessageDeliveryStatus.ACCEPTED, null);
+    }
+
+    private void run() {
+        int batchSize = chatSendProperties.getBatchSize();
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(chatSendProperties.getFlushIntervalMs());
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMessage first = queue.poll(chatSendProperties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flushWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Luồng ghi tin nhắn bị ngắt, còn {} tin nhắn trong hàng đợi", queue.size());
+                return;
+            } catch (RuntimeException e) {
+                log.error("Lỗi không mong đợi khi ghi batch tin nhắn", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushWithRetry(List<PendingMessage> batch) throws InterruptedException {
+        PreparedBatch prepared = prepare(batch);
+        RuntimeException lastError = null;
+        boolean persisted = false;
+        for (int attempt = 0; attempt <= chatSendProperties.getMaxRetries() && !persisted; attempt++) {
+            if (attempt > 0) {
+                Thread.sleep(100L * attempt);
+            }
+            try {
+                flushTimer.record(() -> persist(prepared));
+                persisted = true;
+            } catch (RuntimeException e) {
+                lastError = e;
+                log.warn("Ghi batch {} tin nhắn thất bại, lần thử {}", batch.size(), attempt + 1, e);
+            }
+        }
+
+        if (!persisted) {
+            log.error("Bỏ batch {} tin nhắn sau {} lần thử", batch.size(), chatSendProperties.getMaxRetries() + 1, lastError);
+            failedCounter.increment(batch.size());
+            batch.forEach(message -> ack(message, EMessageDeliveryStatus.FAILED, "Lưu tin nhắn thất bại"));
+            return;
+        }
+        persistedCounter.increment(batch.size());
+        publishReadStateChanged(prepared);
+        batch.forEach(message -> ack(message, EMessageDeliveryStatus.PERSISTED, null));
+    }
+
+    // Id thông báo được cấp một lần cho cả batch, nên ghi lại sau một lần commit không rõ kết quả không tạo bản trùng
+    private PreparedBatch prepare(List<PendingMessage> batch) {
+        List<Object[]> messages = new ArrayList<>(batch.size());
+        List<Object[]> notifications = new ArrayList<>();
+        Map<Long, PendingMessage> lastByConversation = new HashMap<>();
+        Map<List<Long>, Long> sentByConversationAndSender = new HashMap<>();
+        Map<List<Long>, Long> lastIdByConversationAndSender = new HashMap<>();
+        Map<Long, Set<Long>> affectedUsers = new HashMap<>();
+
+        for (PendingMessage message : batch) {
+            messages.add(new Object[]{message.id(), message.content(), message.createdAt(),
+                    message.conversationId(), message.senderId()});
+            for (Long receiverId : message.receiverIds()) {
+                notifications.add(new Object[]{nextId(),
+                        message.senderName() + " đã gửi một tin nhắn mới", message.createdAt(),
+                        receiverId, message.senderId(), message.conversationId()});
+            }
+            lastByConversation.merge(message.conversationId(), message,
+                    (a, b) -> a.id() > b.id() ? a : b);
+            List<Long> key = List.of(message.conversationId(), message.senderId());
+            sentByConversationAndSender.merge(key, 1L, Long::sum);
+            lastIdByConversationAndSender.merge(key, message.id(), Math::max);
+            Set<Long> users = affectedUsers.computeIfAbsent(message.conversationId(), id -> new HashSet<>());
+            users.add(message.senderId());
+            users.addAll(message.receiverIds());
+        }
+
+        return new PreparedBatch(
+                messages,
+                notifications,
+                lastByConversation.values().stream()
+                        .map(m -> new Object[]{m.id(), m.createdAt(), ChatServiceImpl.previewOf(m.content()),
+                                m.conversationId(), m.id()})
+                        .toList(),
+                sentByConversationAndSender.entrySet().stream()
+                        .map(e -> new Object[]{e.getValue(), e.getKey().get(0), e.getKey().get(1)})
+                        .toList(),
+                lastIdByConversationAndSender.entrySet().stream()
+                        .map(e -> new Object[]{e.getValue(), e.getKey().get(0), e.getValue(), e.getKey().get(1),
+                                e.getKey().get(0), e.getKey().get(1), e.getValue()})
+                        .toList(),
+                affectedUsers);
+    }
+
+    private void persist(PreparedBatch batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_MESSAGE, batch.messages());
+            if (!batch.notifications().isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, batch.notifications());
+            }
+            jdbcTemplate.batchUpdate(ADVANCE_LAST_MESSAGE, batch.lastMessages());
+            jdbcTemplate.batchUpdate(INCREMENT_UNREAD, batch.unreadIncrements());
+            jdbcTemplate.batchUpdate(ADVANCE_SENDER_READ, batch.senderReads());
+        });
+    }
+
+    // Chạy sau khi đã commit, lỗi ở đây không được làm ghi lại batch vì tăng số chưa đọc không lặp lại an toàn
+    private void publishReadStateChanged(PreparedBatch batch) {
+        batch.affectedUsers().forEach((conversationId, userIds) -> {
+            try {
+                eventPublisher.publishEvent(new ConversationReadStateChangedEvent(conversationId, userIds));
+            } catch (RuntimeException e) {
+                log.warn("Không thể phát sự kiện đọc cho hội thoại {}", conversationId, e);
+            }
+        });
+    }
+
+    private void ack(PendingMessage message, EMessageDeliveryStatus status, String reason) {
+        try {
+            messagingTemplate.convertAndSend(
+                    "/topic/users/" + message.senderId() + "/chat.ack",
+                    MessageAckResponse.builder()
+                            .clientMessageId(message.clientMessageId())
+                            .messageId(message.id())
+                            .conversationId(message.conversationId())
+                            .status(status)
+                            .message(reason)
+                            .build());
+        } catch (RuntimeException e) {
+            log.warn("Không thể gửi ack {} cho tin nhắn {}", status, message.id(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (worker.isAlive()) {
+            worker.join(chatSendProperties.getShutdownTimeoutMs());
+        }
+        if (!queue.isEmpty()) {
+            log.error("Tắt ứng dụng khi còn {} tin nhắn chưa ghi", queue.size());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.back.service.chat;
+
+import com.back.model.event.ConversationReadStateChangedEvent;
+import com.back.repository.IConversationMemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterServiceImpl implements IUnreadCounterService{
+
+    private final IConversationMemberRepository conversationMemberRepository;
+    private final ChatUnreadProperties chatUnreadProperties;
+    private final Map<Long, CachedTotal> cache = new ConcurrentHashMap<>();
+
+    @Override
+    public long totalUnread(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedTotal cached = cache.get(userId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+        long value = conversationMemberRepository.sumUnreadByUserId(userId);
+        cache.put(userId, new CachedTotal(value, now + chatUnreadProperties.getCacheTtlMs()));
+        return value;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReadStateChanged(ConversationReadStateChangedEvent event) {
+        event.userIds().forEach(cache::remove);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.unread.cache-cleanup-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private record CachedTotal(long value, long expiresAt) {
+    }
+}
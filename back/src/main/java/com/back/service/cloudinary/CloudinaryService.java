@@ -1,35 +1,64 @@
 package com.back.service.cloudinary;
 
+import com.back.service.storage.MediaStorage;
+import com.back.service.upload.MediaSpooler;
+import com.back.service.upload.MediaUploadProperties;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Map;
 
 @Service
-public class CloudinaryService {
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryService implements MediaStorage {
 
     private final Cloudinary cloudinary;
+    private final MediaSpooler mediaSpooler;
+    private final MediaUploadProperties mediaUploadProperties;
 
-    public CloudinaryService(CloudinaryProperties properties) {
+    public CloudinaryService(CloudinaryProperties properties,
+                             MediaSpooler mediaSpooler,
+                             MediaUploadProperties mediaUploadProperties) {
         this.cloudinary = new Cloudinary(ObjectUtils.asMap(
                 "cloud_name", properties.getCloudName(),
                 "api_key", properties.getApiKey(),
                 "api_secret", properties.getApiSecret()
         ));
+        this.mediaSpooler = mediaSpooler;
+        this.mediaUploadProperties = mediaUploadProperties;
     }
 
+    @Override
     public String uploadImage(MultipartFile file) throws IOException {
-        Map result = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.emptyMap());
-        return result.get("secure_url").toString();
+        try (MediaSpooler.SpooledFile spooled = mediaSpooler.spool(file)) {
+            return uploadImage(spooled.path().toFile());
+        }
     }
 
+    @Override
     public String uploadVideo(MultipartFile file) throws IOException {
-        Map result = cloudinary.uploader().upload(file.getBytes(),
-                ObjectUtils.asMap("resource_type", "video"));
+        try (MediaSpooler.SpooledFile spooled = mediaSpooler.spool(file)) {
+            return uploadVideo(spooled.path().toFile());
+        }
+    }
+
+    @Override
+    public String uploadImage(File file) throws IOException {
+        Map result = cloudinary.uploader().upload(file, ObjectUtils.emptyMap());
+        return result.get("secure_url").toString();
+    }
+
+    @Override
+    public String uploadVideo(File file) throws IOException {
+        Map result = cloudinary.uploader().uploadLarge(file, ObjectUtils.asMap(
+                "resource_type", "video",
+                "chunk_size", mediaUploadProperties.getChunkSizeBytes()));
         return result.get("secure_url").toString();
     }
 
-}
\ No newline at end of file
+}
@@ -3,18 +3,20 @@ package com.back.service.comment;
 import com.back.model.dto.request.CommentRequest;
 import com.back.model.dto.response.APIResponse;
 import com.back.model.dto.response.CommentResponse;
-import com.back.model.dto.response.UserSummaryResponse;
 import com.back.model.entity.Comment;
 import com.back.model.entity.CommentReaction;
 import com.back.model.entity.Post;
 import com.back.model.entity.User;
+import com.back.model.event.PostCommentCountChangedEvent;
 import com.back.model.mapper.CommentMapper;
+import com.back.model.mapper.UserSummaryMapper;
 import com.back.repository.ICommentReactionRepository;
 import com.back.repository.ICommentRepository;
 import com.back.repository.IPostRepository;
 import com.back.repository.IUserRepository;
 import com.back.security.principal.CustomUserDetails;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -32,6 +34,7 @@ public class CommentServiceImpl implements ICommentService{
     private final IPostRepository postRepository;
     private final ICommentReactionRepository commentReactionRepository;
     private final IUserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public APIResponse<List<CommentResponse>> getCommentsByPostId(Long postId) {
@@ -91,15 +94,12 @@ public class CommentServiceImpl implements ICommentService{
 
         commentRepository.save(comment);
 
+        eventPublisher.publishEvent(new PostCommentCountChangedEvent(post.getId(), 1));
+
         CommentResponse response = CommentResponse.builder()
                 .id(comment.getId())
                 .content(comment.getContent())
-                .user(UserSummaryResponse.builder()
-                        .id(comment.getUser().getId())
-                        .username(comment.getUser().getUsername())
-                        .fullName(comment.getUser().getFullName())
-                        .avatarUrl(comment.getUser().getAvatarUrl())
-                        .build())
+                .user(UserSummaryMapper.mapToUserSummary(comment.getUser()))
                 .createdAt(comment.getCreatedAt())
                 .reactionCount(0)
                 .reactedByCurrentUser(false)
@@ -120,14 +120,27 @@ public class CommentServiceImpl implements ICommentService{
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new NoSuchElementException("Không tìm thấy comment"));
 
+        long removedComments = countThread(comment);
         commentRepository.delete(comment);
 
+        eventPublisher.publishEvent(new PostCommentCountChangedEvent(comment.getPost().getId(), -removedComments));
+
         return APIResponse.<Void>builder()
                 .status(204)
                 .message("Xóa comment thành công")
                 .build();
     }
 
+    private long countThread(Comment comment) {
+        long count = 1;
+        if (comment.getChildComments() != null) {
+            for (Comment child : comment.getChildComments()) {
+                count += countThread(child);
+            }
+        }
+        return count;
+    }
+
     @Override
     public APIResponse<CommentResponse> toggleCommentReaction(Long commentId) {
         CustomUserDetails currentUserDetails =
@@ -162,12 +175,7 @@ public class CommentServiceImpl implements ICommentService{
         CommentResponse updatedResponse = CommentResponse.builder()
                 .id(comment.getId())
                 .content(comment.getContent())
-                .user(UserSummaryResponse.builder()
-                        .id(comment.getUser().getId())
-                        .username(comment.getUser().getUsername())
-                        .fullName(comment.getUser().getFullName())
-                        .avatarUrl(comment.getUser().getAvatarUrl())
-                        .build())
+                .user(UserSummaryMapper.mapToUserSummary(comment.getUser()))
                 .reactionCount(comment.getReactions().size())
                 .reactedByCurrentUser(
                         comment.getReactions().stream()
@@ -183,12 +191,7 @@ public class CommentServiceImpl implements ICommentService{
                                 .map(child -> CommentResponse.builder()
                                         .id(child.getId())
                                         .content(child.getContent())
-                                        .user(UserSummaryResponse.builder()
-                                                .id(child.getUser().getId())
-                                                .username(child.getUser().getUsername())
-                                                .fullName(child.getUser().getFullName())
-                                                .avatarUrl(child.getUser().getAvatarUrl())
-                                                .build())
+                                        .user(UserSummaryMapper.mapToUserSummary(child.getUser()))
                                         .reactionCount(child.getReactions().size())
                                         .reactedByCurrentUser(child.getReactions().stream()
                                                 .anyMatch(r -> r.getUser().getId().equals(currentUser.getId())))
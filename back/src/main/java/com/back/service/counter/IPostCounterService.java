@@ -0,0 +1,14 @@
+package com.back.service.counter;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface IPostCounterService{
+    void incrementReactions(Long postId, long delta);
+    void incrementComments(Long postId, long delta);
+    long reactionCount(Long postId);
+    Map<Long, Long> reactionCounts(Collection<Long> postIds);
+    long pendingComments(Long postId);
+    void flush();
+    void reconcile();
+}
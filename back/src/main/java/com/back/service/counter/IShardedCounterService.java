@@ -0,0 +1,13 @@
+package com.back.service.counter;
+
+import com.back.model.enums.ECounterScope;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface IShardedCounterService{
+    void increment(ECounterScope scope, Long entityId, long delta);
+    long get(ECounterScope scope, Long entityId);
+    Map<Long, Long> getAll(ECounterScope scope, Collection<Long> entityIds);
+    Map<Long, Long> getAllUncached(ECounterScope scope, Collection<Long> entityIds);
+}
@@ -0,0 +1,207 @@
+package com.back.service.counter;
+
+import com.back.model.enums.ECounterScope;
+import com.back.model.event.PostCommentCountChangedEvent;
+import com.back.repository.ICommentRepository;
+import com.back.repository.ICounterShardRepository;
+import com.back.repository.IPostReactionRepository;
+import com.back.repository.IPostRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+@Slf4j
+@Service
+public class PostCounterServiceImpl implements IPostCounterService{
+
+    private static final int STRIPES = 16;
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final IPostRepository postRepository;
+    private final IPostReactionRepository postReactionRepository;
+    private final ICommentRepository commentRepository;
+    private final ICounterShardRepository counterShardRepository;
+    private final IShardedCounterService shardedCounterService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+
+    private final StripedDeltaBuffer commentDeltas = new StripedDeltaBuffer(STRIPES);
+    private volatile Map<Long, Long> flushingComments = Map.of();
+
+    public PostCounterServiceImpl(IPostRepository postRepository,
+                                  IPostReactionRepository postReactionRepository,
+                                  ICommentRepository commentRepository,
+                                  ICounterShardRepository counterShardRepository,
+                                  IShardedCounterService shardedCounterService,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.postRepository = postRepository;
+        this.postReactionRepository = postReactionRepository;
+        this.commentRepository = commentRepository;
+        this.counterShardRepository = counterShardRepository;
+        this.shardedCounterService = shardedCounterService;
+        this.jdbcTemplate = jdbcTemplate;
+        // Đếm post_reaction và cộng shard phải cùng một snapshot, nếu không lượt thích xen giữa hai lần đọc bị tính lệch
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void incrementReactions(Long postId, long delta) {
+        shardedCounterService.increment(ECounterScope.POST_REACTION, postId, delta);
+    }
+
+    @Override
+    public void incrementComments(Long postId, long delta) {
+        commentDeltas.add(postId, delta);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentCountChanged(PostCommentCountChangedEvent event) {
+        incrementComments(event.postId(), event.delta());
+    }
+
+    @Override
+    public long reactionCount(Long postId) {
+        return shardedCounterService.get(ECounterScope.POST_REACTION, postId);
+    }
+
+    @Override
+    public Map<Long, Long> reactionCounts(Collection<Long> postIds) {
+        return shardedCounterService.getAll(ECounterScope.POST_REACTION, postIds);
+    }
+
+    @Override
+    public long pendingComments(Long postId) {
+        return commentDeltas.pending(postId) + flushingComments.getOrDefault(postId, 0L);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${post.counter.flush-ms:1000}")
+    public synchronized void flush() {
+        Map<Long, Long> comments = commentDeltas.drain();
+        if (comments.isEmpty()) {
+            return;
+        }
+        flushingComments = comments;
+
+        List<Object[]> args = comments.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+
+        try {
+            jdbcTemplate.batchUpdate("UPDATE post SET comment_count = comment_count + ? WHERE id = ?", args);
+        } catch (RuntimeException e) {
+            log.error("Flush bộ đếm bài đăng thất bại, giữ lại {} delta cho lần sau", comments.size(), e);
+            comments.forEach(commentDeltas::add);
+        } finally {
+            flushingComments = Map.of();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedReactionShards() {
+        if (!counterShardRepository.existsByIdScope(ECounterScope.POST_REACTION)) {
+            int seeded = counterShardRepository.seedPostReactionShards();
+            log.info("Khởi tạo bộ đếm phân mảnh lượt thích cho {} bài đăng", seeded);
+        }
+    }
+
+    // Cột comment_count vừa được thêm có giá trị 0 cho mọi bài đăng cũ, không chờ tới lần đối soát ban đêm
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillCommentCounts() {
+        if (!postRepository.existsByCommentCountGreaterThan(0L) && commentRepository.count() > 0) {
+            int backfilled = postRepository.backfillCommentCounts();
+            log.info("Khởi tạo số bình luận cho {} bài đăng", backfilled);
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${post.counter.reconcile-cron:0 0 4 * * *}")
+    public void reconcile() {
+        long afterId = 0;
+        int corrected = 0;
+        List<Object[]> slice;
+        do {
+            long sliceAfterId = afterId;
+            CounterSnapshot snapshot = snapshotTransaction.execute(status -> readSnapshot(sliceAfterId));
+            slice = snapshot.slice();
+            if (slice.isEmpty()) {
+                break;
+            }
+            Map<Long, Long> reactionCounts = snapshot.reactionCounts();
+            Map<Long, Long> commentCounts = snapshot.commentCounts();
+            Map<Long, Long> shardSums = snapshot.shardSums();
+
+            List<Object[]> args = new ArrayList<>();
+            for (Object[] row : slice) {
+                Long postId = (Long) row[0];
+                long reactions = reactionCounts.getOrDefault(postId, 0L);
+                long comments = commentCounts.getOrDefault(postId, 0L);
+                long shardDrift = reactions - shardSums.getOrDefault(postId, 0L);
+                if (shardDrift != 0) {
+                    shardedCounterService.increment(ECounterScope.POST_REACTION, postId, shardDrift);
+                }
+                boolean drifted = (Long) row[1] != reactions || (Long) row[2] != comments;
+                if (drifted && pendingComments(postId) == 0) {
+                    args.add(new Object[]{reactions, comments, postId});
+                }
+            }
+            if (!args.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE post SET reaction_count = ?, comment_count = ? WHERE id = ?", args);
+                corrected += args.size();
+            }
+            afterId = (Long) slice.getLast()[0];
+        } while (slice.size() == RECONCILE_BATCH_SIZE);
+
+        log.info("Đối soát bộ đếm bài đăng: sửa {} bài đăng", corrected);
+    }
+
+    // Lượt thích và shard được ghi trong cùng transaction, nên độ lệch đọc từ một snapshot vẫn đúng khi áp dụng sau đó
+    private CounterSnapshot readSnapshot(long afterId) {
+        List<Object[]> slice = postRepository.findCounterSlice(afterId, PageRequest.of(0, RECONCILE_BATCH_SIZE));
+        if (slice.isEmpty()) {
+            return new CounterSnapshot(slice, Map.of(), Map.of(), Map.of());
+        }
+        List<Long> postIds = slice.stream().map(row -> (Long) row[0]).toList();
+        return new CounterSnapshot(slice,
+                toCountMap(postReactionRepository.countReactionsGroupedByPostIds(postIds)),
+                toCountMap(commentRepository.countCommentsGroupedByPostIds(postIds)),
+                shardedCounterService.getAllUncached(ECounterScope.POST_REACTION, postIds));
+    }
+
+    private record CounterSnapshot(List<Object[]> slice,
+                                   Map<Long, Long> reactionCounts,
+                                   Map<Long, Long> commentCounts,
+                                   Map<Long, Long> shardSums) {
+    }
+
+    private static Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>(rows.size());
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+}
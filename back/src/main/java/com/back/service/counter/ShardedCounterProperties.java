@@ -0,0 +1,13 @@
+package com.back.service.counter;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "counter.sharded")
+public class ShardedCounterProperties {
+    private int shards = 16;
+    private long cacheTtlMs = 2000;
+}
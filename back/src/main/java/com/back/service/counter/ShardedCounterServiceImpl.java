@@ -0,0 +1,85 @@
+package com.back.service.counter;
+
+import com.back.model.enums.ECounterScope;
+import com.back.repository.ICounterShardRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+@RequiredArgsConstructor
+public class ShardedCounterServiceImpl implements IShardedCounterService{
+
+    private final ICounterShardRepository counterShardRepository;
+    private final ShardedCounterProperties shardedCounterProperties;
+    private final Map<CacheKey, CachedSum> cache = new ConcurrentHashMap<>();
+
+    @Override
+    @Transactional
+    public void increment(ECounterScope scope, Long entityId, long delta) {
+        int shard = ThreadLocalRandom.current().nextInt(shardedCounterProperties.getShards());
+        counterShardRepository.increment(scope.name(), entityId, shard, delta);
+        cache.remove(new CacheKey(scope, entityId));
+    }
+
+    @Override
+    public long get(ECounterScope scope, Long entityId) {
+        return getAll(scope, List.of(entityId)).getOrDefault(entityId, 0L);
+    }
+
+    @Override
+    public Map<Long, Long> getAll(ECounterScope scope, Collection<Long> entityIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, Long> result = new HashMap<>(entityIds.size());
+        List<Long> missing = new ArrayList<>();
+
+        for (Long entityId : entityIds) {
+            CachedSum cached = cache.get(new CacheKey(scope, entityId));
+            if (cached != null && cached.expiresAt() > now) {
+                result.put(entityId, cached.value());
+            } else {
+                missing.add(entityId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, Long> loaded = getAllUncached(scope, missing);
+            long expiresAt = now + shardedCounterProperties.getCacheTtlMs();
+            for (Long entityId : missing) {
+                long value = loaded.getOrDefault(entityId, 0L);
+                cache.put(new CacheKey(scope, entityId), new CachedSum(value, expiresAt));
+                result.put(entityId, value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<Long, Long> getAllUncached(ECounterScope scope, Collection<Long> entityIds) {
+        if (entityIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Long> sums = new HashMap<>(entityIds.size());
+        for (Object[] row : counterShardRepository.sumByEntityIds(scope, entityIds)) {
+            sums.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return sums;
+    }
+
+    @Scheduled(fixedDelayString = "${counter.sharded.cache-cleanup-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(cached -> cached.expiresAt() <= now);
+    }
+
+    private record CacheKey(ECounterScope scope, Long entityId) {
+    }
+
+    private record CachedSum(long value, long expiresAt) {
+    }
+}
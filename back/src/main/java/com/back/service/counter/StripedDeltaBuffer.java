@@ -0,0 +1,64 @@
+package com.back.service.counter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class StripedDeltaBuffer {
+
+    private final Stripe[] stripes;
+
+    public StripedDeltaBuffer(int stripeCount) {
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public void add(long key, long delta) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.readLock().lock();
+        try {
+            stripe.deltas.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    public long pending(long key) {
+        LongAdder adder = stripeFor(key).deltas.get(key);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    public Map<Long, Long> drain() {
+        Map<Long, Long> drained = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            Map<Long, LongAdder> deltas;
+            stripe.lock.writeLock().lock();
+            try {
+                deltas = stripe.deltas;
+                stripe.deltas = new ConcurrentHashMap<>();
+            } finally {
+                stripe.lock.writeLock().unlock();
+            }
+            deltas.forEach((key, adder) -> {
+                long delta = adder.sum();
+                if (delta != 0) {
+                    drained.put(key, delta);
+                }
+            });
+        }
+        return drained;
+    }
+
+    private Stripe stripeFor(long key) {
+        return stripes[(int) Math.floorMod(Long.hashCode(key), stripes.length)];
+    }
+
+    private static final class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile Map<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+    }
+}
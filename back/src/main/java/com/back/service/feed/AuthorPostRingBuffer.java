@@ -0,0 +1,67 @@
+package com.back.service.feed;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+public class AuthorPostRingBuffer {
+
+    private final long[] postIds;
+    private final long[] timestamps;
+    private final boolean[] publicFlags;
+    private int head;
+    private int size;
+    private boolean complete;
+
+    public AuthorPostRingBuffer(int capacity, boolean complete) {
+        this.postIds = new long[capacity];
+        this.timestamps = new long[capacity];
+        this.publicFlags = new boolean[capacity];
+        this.complete = complete;
+    }
+
+    public static long toTimestamp(LocalDateTime createdAt) {
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + createdAt.getNano();
+    }
+
+    public static LocalDateTime toLocalDateTime(long timestamp) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(timestamp, 1_000_000_000L),
+                (int) Math.floorMod(timestamp, 1_000_000_000L),
+                ZoneOffset.UTC);
+    }
+
+    public synchronized boolean push(long postId, long timestamp, boolean isPublic) {
+        if (size > 0) {
+            int newest = Math.floorMod(head - 1, postIds.length);
+            if (timestamp < timestamps[newest] || (timestamp == timestamps[newest] && postId <= postIds[newest])) {
+                return false;
+            }
+        }
+        postIds[head] = postId;
+        timestamps[head] = timestamp;
+        publicFlags[head] = isPublic;
+        head = (head + 1) % postIds.length;
+        if (size < postIds.length) {
+            size++;
+        } else {
+            complete = false;
+        }
+        return true;
+    }
+
+    public synchronized Snapshot snapshot() {
+        long[] ids = new long[size];
+        long[] times = new long[size];
+        boolean[] flags = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            int index = Math.floorMod(head - 1 - i, postIds.length);
+            ids[i] = postIds[index];
+            times[i] = timestamps[index];
+            flags[i] = publicFlags[index];
+        }
+        return new Snapshot(ids, times, flags, complete);
+    }
+
+    public record Snapshot(long[] postIds, long[] timestamps, boolean[] publicFlags, boolean complete) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.back.service.feed;
+
+import com.back.model.event.PostPublishedEvent;
+import com.back.model.event.PostVisibilityChangedEvent;
+import com.back.utils.pagination.FeedCursor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface IPullFeedService{
+    Optional<List<FeedCursor>> readPage(Long viewerId, List<Long> authorIds, FeedCursor cursor, int size);
+    void onPostPublished(PostPublishedEvent event);
+    void onPostVisibilityChanged(PostVisibilityChangedEvent event);
+    void evictAuthor(Long authorId);
+    void evictPosts(List<Long> authorIds, Collection<Long> postIds);
+}
@@ -0,0 +1,14 @@
+package com.back.service.feed;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "feed.pull")
+public class PullFeedProperties {
+    private boolean enabled = false;
+    private int bufferSize = 64;
+    private int maxAuthors = 200000;
+}
@@ -0,0 +1,215 @@
+package com.back.service.feed;
+
+import com.back.model.enums.EVisibility;
+import com.back.model.event.PostPublishedEvent;
+import com.back.model.event.PostVisibilityChangedEvent;
+import com.back.repository.IPostRepository;
+import com.back.utils.pagination.FeedCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+public class PullFeedServiceImpl implements IPullFeedService{
+
+    private static final Comparator<MergeHead> NEWEST_FIRST = Comparator
+            .comparingLong(MergeHead::timestamp)
+            .thenComparingLong(MergeHead::postId)
+            .reversed();
+
+    private final IPostRepository postRepository;
+    private final PullFeedProperties pullFeedProperties;
+    private final Map<Long, AuthorPostRingBuffer> buffers;
+    private final Counter cacheMissCounter;
+    private final Counter fallbackCounter;
+
+    public PullFeedServiceImpl(IPostRepository postRepository,
+                               PullFeedProperties pullFeedProperties,
+                               MeterRegistry meterRegistry) {
+        this.postRepository = postRepository;
+        this.pullFeedProperties = pullFeedProperties;
+        // LRU theo lượt đọc: khi đủ max-authors thì bỏ tác giả lâu không được đọc nhất thay vì ngừng cache
+        this.buffers = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, AuthorPostRingBuffer> eldest) {
+                return size() > pullFeedProperties.getMaxAuthors();
+            }
+        });
+        this.cacheMissCounter = Counter.builder("feed.pull.cache.miss")
+                .description("Số tác giả phải nạp bài đăng gần nhất từ database")
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("feed.pull.fallback")
+                .description("Số trang feed phải đọc lại từ database vì ring buffer không đủ")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<List<FeedCursor>> readPage(Long viewerId, List<Long> authorIds, FeedCursor cursor, int size) {
+        long cursorTimestamp = cursor == null ? Long.MAX_VALUE : AuthorPostRingBuffer.toTimestamp(cursor.createdAt());
+        long cursorId = cursor == null ? Long.MAX_VALUE : cursor.id();
+
+        PriorityQueue<MergeHead> heap = new PriorityQueue<>(Math.max(1, authorIds.size()), NEWEST_FIRST);
+        long horizonTimestamp = Long.MIN_VALUE;
+        long horizonId = Long.MIN_VALUE;
+
+        for (Map.Entry<Long, AuthorPostRingBuffer> entry : loadBuffers(authorIds).entrySet()) {
+            AuthorPostRingBuffer.Snapshot snapshot = entry.getValue().snapshot();
+            int length = snapshot.postIds().length;
+
+            if (!snapshot.complete() && length > 0
+                    && isOlder(horizonTimestamp, horizonId, snapshot.timestamps()[length - 1], snapshot.postIds()[length - 1])) {
+                horizonTimestamp = snapshot.timestamps()[length - 1];
+                horizonId = snapshot.postIds()[length - 1];
+            }
+
+            MergeHead head = new MergeHead(snapshot, entry.getKey().equals(viewerId));
+            while (head.hasNext() && !isOlder(head.timestamp(), head.postId(), cursorTimestamp, cursorId)) {
+                head.advance();
+            }
+            if (head.skipHidden()) {
+                heap.add(head);
+            } else if (!snapshot.complete()) {
+                fallbackCounter.increment();
+                return Optional.empty();
+            }
+        }
+
+        List<FeedCursor> page = new ArrayList<>(size);
+        while (page.size() < size && !heap.isEmpty()) {
+            MergeHead head = heap.poll();
+            if (isOlder(head.timestamp(), head.postId(), horizonTimestamp, horizonId)) {
+                fallbackCounter.increment();
+                return Optional.empty();
+            }
+            page.add(new FeedCursor(AuthorPostRingBuffer.toLocalDateTime(head.timestamp()), head.postId()));
+            head.advance();
+            if (head.skipHidden()) {
+                heap.add(head);
+            }
+        }
+
+        if (page.size() < size && horizonTimestamp != Long.MIN_VALUE) {
+            fallbackCounter.increment();
+            return Optional.empty();
+        }
+        return Optional.of(page);
+    }
+
+    private Map<Long, AuthorPostRingBuffer> loadBuffers(List<Long> authorIds) {
+        Map<Long, AuthorPostRingBuffer> result = new HashMap<>();
+        List<Long> missingAuthorIds = new ArrayList<>();
+        for (Long authorId : authorIds) {
+            AuthorPostRingBuffer buffer = buffers.get(authorId);
+            if (buffer != null) {
+                result.put(authorId, buffer);
+            } else {
+                missingAuthorIds.add(authorId);
+            }
+        }
+
+        if (missingAuthorIds.isEmpty()) {
+            return result;
+        }
+        cacheMissCounter.increment(missingAuthorIds.size());
+
+        int capacity = pullFeedProperties.getBufferSize();
+        Map<Long, List<Object[]>> rowsByAuthor = new HashMap<>();
+        for (Object[] row : postRepository.findRecentPostKeysByUserIds(missingAuthorIds, capacity)) {
+            rowsByAuthor.computeIfAbsent(((Number) row[1]).longValue(), id -> new ArrayList<>()).add(row);
+        }
+
+        for (Long authorId : missingAuthorIds) {
+            List<Object[]> rows = rowsByAuthor.getOrDefault(authorId, List.of());
+            AuthorPostRingBuffer buffer = new AuthorPostRingBuffer(capacity, rows.size() < capacity);
+            rows.stream()
+                    .sorted(Comparator.comparing((Object[] row) -> toLocalDateTime(row[2]))
+                            .thenComparingLong(row -> ((Number) row[0]).longValue()))
+                    .forEach(row -> buffer.push(
+                            ((Number) row[0]).longValue(),
+                            AuthorPostRingBuffer.toTimestamp(toLocalDateTime(row[2])),
+                            EVisibility.PUBLIC.name().equals(row[3])));
+
+            AuthorPostRingBuffer existing = buffers.putIfAbsent(authorId, buffer);
+            result.put(authorId, existing != null ? existing : buffer);
+        }
+        return result;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static boolean isOlder(long timestamp, long postId, long otherTimestamp, long otherPostId) {
+        return timestamp < otherTimestamp || (timestamp == otherTimestamp && postId < otherPostId);
+    }
+
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostPublished(PostPublishedEvent event) {
+        buffers.computeIfPresent(event.authorId(), (authorId, buffer) -> buffer.push(
+                event.postId(),
+                AuthorPostRingBuffer.toTimestamp(event.createdAt()),
+                event.visibility() == EVisibility.PUBLIC) ? buffer : null);
+    }
+
+    @Override
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostVisibilityChanged(PostVisibilityChangedEvent event) {
+        evictAuthor(event.authorId());
+    }
+
+    @Override
+    public void evictAuthor(Long authorId) {
+        buffers.remove(authorId);
+    }
+
+    @Override
+    public void evictPosts(List<Long> authorIds, Collection<Long> postIds) {
+        for (Long authorId : authorIds) {
+            AuthorPostRingBuffer buffer = buffers.get(authorId);
+            if (buffer != null && Arrays.stream(buffer.snapshot().postIds()).anyMatch(postIds::contains)) {
+                buffers.remove(authorId, buffer);
+            }
+        }
+    }
+
+    private static final class MergeHead {
+        private final AuthorPostRingBuffer.Snapshot snapshot;
+        private final boolean ownPosts;
+        private int index;
+
+        private MergeHead(AuthorPostRingBuffer.Snapshot snapshot, boolean ownPosts) {
+            this.snapshot = snapshot;
+            this.ownPosts = ownPosts;
+        }
+
+        private boolean hasNext() {
+            return index < snapshot.postIds().length;
+        }
+
+        private void advance() {
+            index++;
+        }
+
+        private boolean skipHidden() {
+            while (hasNext() && !ownPosts && !snapshot.publicFlags()[index]) {
+                index++;
+            }
+            return hasNext();
+        }
+
+        private long timestamp() {
+            return snapshot.timestamps()[index];
+        }
+
+        private long postId() {
+            return snapshot.postIds()[index];
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.back.model.dto.response.ProfileResponse;
 import com.back.model.entity.Conversation;
 import com.back.model.entity.Follow;
 import com.back.model.entity.User;
+import com.back.model.enums.ECounterScope;
 import com.back.model.enums.EFollowStatus;
 import com.back.model.enums.EUserStatus;
 import com.back.model.mapper.MapToProfileResponse;
@@ -12,10 +13,13 @@ import com.back.repository.IConversationRepository;
 import com.back.repository.IFollowRepository;
 import com.back.repository.IUserRepository;
 import com.back.security.principal.CustomUserDetails;
+import com.back.service.counter.IShardedCounterService;
+import com.back.service.timeline.ITimelineService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,6 +34,8 @@ public class FollowServiceImpl implements IFollowService {
     private final IFollowRepository followRepository;
     private final IUserRepository userRepository;
     private final IConversationRepository conversationRepository;
+    private final ITimelineService timelineService;
+    private final IShardedCounterService shardedCounterService;
 
     @Override
     public APIResponse<Void> followUser(Long followingId) {
@@ -66,6 +72,7 @@ public class FollowServiceImpl implements IFollowService {
     }
 
     @Override
+    @Transactional
     public APIResponse<Void> acceptFollow(Long followerId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
@@ -83,15 +90,21 @@ public class FollowServiceImpl implements IFollowService {
 
         follow.setStatus(EFollowStatus.ACCEPTED);
         followRepository.save(follow);
+        shardedCounterService.increment(ECounterScope.USER_FOLLOWER, follow.getFollowing().getId(), 1);
+
+        timelineService.backfillAuthor(follow.getFollower().getId(), follow.getFollowing().getId());
 
         Optional<Conversation> existingConversation = conversationRepository
                 .findConversationByParticipants(follow.getFollower().getId(), follow.getFollowing().getId());
 
         if (existingConversation.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
             Conversation conversation = Conversation.builder()
-                    .participants(List.of(follow.getFollower(), follow.getFollowing()))
-                    .createdAt(LocalDateTime.now())
+                    .createdAt(now)
+                    .lastMessageAt(now)
                     .build();
+            conversation.addMember(follow.getFollower());
+            conversation.addMember(follow.getFollowing());
             conversationRepository.save(conversation);
         }
 
@@ -126,6 +139,7 @@ public class FollowServiceImpl implements IFollowService {
     }
 
     @Override
+    @Transactional
     public APIResponse<Void> removeFollow(Long followId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
@@ -137,6 +151,11 @@ public class FollowServiceImpl implements IFollowService {
                 .orElseThrow(() -> new NoSuchElementException("Không tìm thấy mối quan hệ theo dõi"));
 
         followRepository.delete(follow);
+        if (follow.getStatus() == EFollowStatus.ACCEPTED) {
+            shardedCounterService.increment(ECounterScope.USER_FOLLOWER, followId, -1);
+        }
+
+        timelineService.removeAuthorFromTimeline(currentUser.getId(), followId);
 
         return APIResponse.<Void>builder()
                 .message("Đã hủy theo dõi")
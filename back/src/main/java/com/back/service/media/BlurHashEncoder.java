@@ -0,0 +1,104 @@
+package com.back.service.media;
+
+import java.awt.image.BufferedImage;
+
+public final class BlurHashEncoder {
+
+    private static final String ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    private BlurHashEncoder() {
+    }
+
+    public record Result(String hash, int averageRgb) {
+    }
+
+    public static Result encode(BufferedImage image, int componentsX, int componentsY) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+        double[][] linear = new double[pixels.length][3];
+        for (int i = 0; i < pixels.length; i++) {
+            linear[i][0] = srgbToLinear((pixels[i] >> 16) & 0xFF);
+            linear[i][1] = srgbToLinear((pixels[i] >> 8) & 0xFF);
+            linear[i][2] = srgbToLinear(pixels[i] & 0xFF);
+        }
+
+        double[][] factors = new double[componentsX * componentsY][3];
+        for (int j = 0; j < componentsY; j++) {
+            for (int i = 0; i < componentsX; i++) {
+                double normalisation = (i == 0 && j == 0) ? 1 : 2;
+                double r = 0, g = 0, b = 0;
+                for (int y = 0; y < height; y++) {
+                    double cosY = Math.cos(Math.PI * j * y / height);
+                    for (int x = 0; x < width; x++) {
+                        double basis = normalisation * Math.cos(Math.PI * i * x / width) * cosY;
+                        double[] pixel = linear[y * width + x];
+                        r += basis * pixel[0];
+                        g += basis * pixel[1];
+                        b += basis * pixel[2];
+                    }
+                }
+                double scale = 1.0 / (width * height);
+                factors[j * componentsX + i] = new double[]{r * scale, g * scale, b * scale};
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        encode83(hash, (componentsX - 1) + (componentsY - 1) * 9, 1);
+
+        double maximumValue;
+        if (factors.length > 1) {
+            double actualMax = 0;
+            for (int i = 1; i < factors.length; i++) {
+                for (double component : factors[i]) {
+                    actualMax = Math.max(actualMax, Math.abs(component));
+                }
+            }
+            int quantisedMax = (int) Math.max(0, Math.min(82, Math.floor(actualMax * 166 - 0.5)));
+            maximumValue = (quantisedMax + 1) / 166.0;
+            encode83(hash, quantisedMax, 1);
+        } else {
+            maximumValue = 1;
+            encode83(hash, 0, 1);
+        }
+
+        int averageRgb = (linearToSrgb(factors[0][0]) << 16) | (linearToSrgb(factors[0][1]) << 8) | linearToSrgb(factors[0][2]);
+        encode83(hash, averageRgb, 4);
+        for (int i = 1; i < factors.length; i++) {
+            encode83(hash, encodeAc(factors[i], maximumValue), 2);
+        }
+        return new Result(hash.toString(), averageRgb);
+    }
+
+    private static int encodeAc(double[] value, double maximumValue) {
+        int r = quantise(value[0] / maximumValue);
+        int g = quantise(value[1] / maximumValue);
+        int b = quantise(value[2] / maximumValue);
+        return r * 19 * 19 + g * 19 + b;
+    }
+
+    private static int quantise(double value) {
+        return (int) Math.max(0, Math.min(18, Math.floor(Math.copySign(Math.sqrt(Math.abs(value)), value) * 9 + 9.5)));
+    }
+
+    private static double srgbToLinear(int value) {
+        double v = value / 255.0;
+        return v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    private static int linearToSrgb(double value) {
+        double v = Math.max(0, Math.min(1, value));
+        return v <= 0.0031308
+                ? (int) (v * 12.92 * 255 + 0.5)
+                : (int) ((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static void encode83(StringBuilder out, int value, int length) {
+        for (int i = 1; i <= length; i++) {
+            int digit = (value / (int) Math.pow(83, length - i)) % 83;
+            out.append(ALPHABET.charAt(digit));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.back.service.media;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.FileImageOutputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+public final class ImageCodec {
+
+    private ImageCodec() {
+    }
+
+    public static Optional<BufferedImage> read(Path path) {
+        try {
+            return Optional.ofNullable(ImageIO.read(path.toFile()));
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    public static BufferedImage scaleToWidth(BufferedImage source, int width) {
+        if (source.getWidth() <= width) {
+            return source;
+        }
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+
+        // Thu nhỏ từng bước một nửa để ảnh không bị răng cưa như khi scale một lần
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = currentWidth == width ? targetHeight : Math.max(targetHeight, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D g = step.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            g.dispose();
+            current = step;
+        } while (currentWidth > width);
+        return current;
+    }
+
+    public static BufferedImage fitWithin(BufferedImage source, int maxDimension) {
+        if (source.getWidth() >= source.getHeight()) {
+            return scaleToWidth(source, maxDimension);
+        }
+        if (source.getHeight() <= maxDimension) {
+            return source;
+        }
+        return scaleToWidth(source, Math.max(1, (int) ((long) source.getWidth() * maxDimension / source.getHeight())));
+    }
+
+    /**
+     * Đọc tag Orientation trong EXIF của file JPEG. Trả về 0 nếu file không có EXIF, 1 nếu có EXIF nhưng không có tag.
+     */
+    public static int readExifOrientation(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 0;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 0;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (marker == 0xFFE1) {
+                    int orientation = parseExifOrientation(in.readNBytes(length));
+                    if (orientation > 0) {
+                        return orientation;
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static int parseExifOrientation(byte[] segment) {
+        if (segment.length < 14 || segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i' || segment[3] != 'f') {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(segment, 6, segment.length - 6).slice();
+        tiff.order(tiff.getShort(0) == 0x4949 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == 0x0112) {
+                int orientation = tiff.getShort(entry + 8) & 0xFFFF;
+                return orientation >= 1 && orientation <= 8 ? orientation : 1;
+            }
+        }
+        return 1;
+    }
+
+    public static BufferedImage applyOrientation(BufferedImage source, int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return source;
+        }
+        int w = source.getWidth();
+        int h = source.getHeight();
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.scale(-1.0, 1.0); t.translate(-w, 0); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.scale(1.0, -1.0); t.translate(0, -h); }
+            case 5 -> { t.rotate(-Math.PI / 2); t.scale(-1.0, 1.0); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.scale(-1.0, 1.0); t.translate(-h, w); t.rotate(3 * Math.PI / 2); }
+            default -> { t.translate(0, w); t.rotate(3 * Math.PI / 2); }
+        }
+        boolean swap = orientation >= 5;
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage rotated = new BufferedImage(swap ? h : w, swap ? w : h, type);
+        Graphics2D g = rotated.createGraphics();
+        g.drawImage(source, t, null);
+        g.dispose();
+        return rotated;
+    }
+
+    public static Path writeTemp(BufferedImage image, Path directory, float jpegQuality) throws IOException {
+        boolean alpha = image.getColorModel().hasAlpha();
+        Path target = Files.createTempFile(Files.createDirectories(directory), "variant-", alpha ? ".png" : ".jpg");
+        try {
+            if (alpha) {
+                ImageIO.write(image, "png", target.toFile());
+            } else {
+                writeJpeg(toRgb(image), target, jpegQuality);
+            }
+            return target;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    public static void writeJpeg(BufferedImage image, Path target, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        try (ImageOutputStream out = new FileImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.drawImage(image, 0, 0, Color.WHITE, null);
+        g.dispose();
+        return rgb;
+    }
+}
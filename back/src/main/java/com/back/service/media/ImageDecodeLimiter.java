@@ -0,0 +1,40 @@
+package com.back.service.media;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Giới hạn số ảnh được giải mã cùng lúc. Ảnh 12 MP giải mã ra khoảng 36-48 MB, trong khi uploader chạy trên
+ * virtual thread không giới hạn, nên mỗi ảnh phải giữ permit suốt thời gian bitmap còn sống.
+ */
+@Component
+public class ImageDecodeLimiter {
+
+    private final Semaphore permits;
+
+    public ImageDecodeLimiter(MediaVariantProperties mediaVariantProperties, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(mediaVariantProperties.getMaxConcurrentDecodes(), true);
+        Gauge.builder("media.decode.waiting", permits, Semaphore::getQueueLength)
+                .description("Số ảnh đang chờ tới lượt giải mã")
+                .register(meterRegistry);
+    }
+
+    public Permit acquire() throws InterruptedIOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Bị ngắt khi chờ giải mã ảnh");
+        }
+        return permits::release;
+    }
+
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,76 @@
+package com.back.service.media;
+
+import com.back.model.enums.EMediaKind;
+import com.back.service.upload.MediaUploadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+public class ImageRecompressor {
+
+    private final MediaRecompressProperties mediaRecompressProperties;
+    private final MediaUploadProperties mediaUploadProperties;
+    private final Map<EMediaKind, Counter> savedCounters = new EnumMap<>(EMediaKind.class);
+
+    public ImageRecompressor(MediaRecompressProperties mediaRecompressProperties,
+                             MediaUploadProperties mediaUploadProperties,
+                             MeterRegistry meterRegistry) {
+        this.mediaRecompressProperties = mediaRecompressProperties;
+        this.mediaUploadProperties = mediaUploadProperties;
+        for (EMediaKind kind : EMediaKind.values()) {
+            savedCounters.put(kind, Counter.builder("media.recompress.bytes.saved")
+                    .description("Số byte tiết kiệm được nhờ nén lại ảnh trước khi lưu")
+                    .baseUnit("bytes")
+                    .tag("kind", kind.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Thu nhỏ ảnh về kích thước tối đa của loại media. Trả về chính ảnh đầu vào khi không nén lại loại này.
+     */
+    public BufferedImage fit(BufferedImage image, EMediaKind kind) {
+        MediaRecompressProperties.Profile profile = profileFor(image, kind);
+        return profile != null ? ImageCodec.fitWithin(image, profile.getMaxDimension()) : image;
+    }
+
+    /**
+     * Nén lại ảnh đã xoay theo EXIF và đã qua {@link #fit} thành JPEG không metadata. Trả về file tạm mà người gọi
+     * phải xoá, hoặc rỗng nếu nên giữ nguyên file gốc.
+     */
+    public Optional<Path> recompress(Path original, BufferedImage fitted, boolean hasMetadata, EMediaKind kind) throws IOException {
+        MediaRecompressProperties.Profile profile = profileFor(fitted, kind);
+        if (profile == null) {
+            return Optional.empty();
+        }
+
+        Path candidate = ImageCodec.writeTemp(fitted, Path.of(mediaUploadProperties.getSpoolDir()), profile.getQuality());
+        long before = Files.size(original);
+        long after = Files.size(candidate);
+        // Vẫn dùng bản nén lại khi lớn hơn nếu file gốc mang EXIF, để không lộ vị trí / thông tin máy chụp
+        if (after >= before && !hasMetadata) {
+            Files.deleteIfExists(candidate);
+            return Optional.empty();
+        }
+        savedCounters.get(kind).increment(Math.max(0, before - after));
+        return Optional.of(candidate);
+    }
+
+    private MediaRecompressProperties.Profile profileFor(BufferedImage image, EMediaKind kind) {
+        MediaRecompressProperties.Profile profile = mediaRecompressProperties.getKinds().get(kind);
+        if (!mediaRecompressProperties.isEnabled() || profile == null || !profile.isEnabled()
+                || image.getColorModel().hasAlpha()) {
+            return null;
+        }
+        return profile;
+    }
+}
@@ -0,0 +1,84 @@
+package com.back.service.media;
+
+import com.back.model.entity.MediaVariants;
+import com.back.service.storage.MediaStorage;
+import com.back.service.upload.MediaUploadProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tạo biến thể theo hai bước: {@link #render} thu nhỏ và mã hoá ra file tạm (tốn CPU và bộ nhớ, chạy khi còn giữ
+ * permit giải mã), {@link #upload} đẩy các file đó lên storage (chỉ chờ mạng, chạy sau khi đã trả permit).
+ */
+@Component
+@RequiredArgsConstructor
+public class ImageVariantGenerator {
+
+    private final MediaStorage mediaStorage;
+    private final MediaVariantProperties mediaVariantProperties;
+    private final MediaUploadProperties mediaUploadProperties;
+
+    public Rendered render(BufferedImage source) throws IOException {
+        if (!mediaVariantProperties.isEnabled()) {
+            return null;
+        }
+        Rendered rendered = new Rendered();
+        try {
+            rendered.thumbnail = encode(source, mediaVariantProperties.getThumbnailWidth());
+            rendered.feed = encode(source, mediaVariantProperties.getFeedWidth());
+            rendered.full = encode(source, mediaVariantProperties.getFullWidth());
+            return rendered;
+        } catch (IOException | RuntimeException e) {
+            rendered.close();
+            throw e;
+        }
+    }
+
+    public MediaVariants upload(Rendered rendered, String originalUrl) throws IOException {
+        if (rendered == null) {
+            return null;
+        }
+        return MediaVariants.builder()
+                .thumbnailUrl(upload(rendered.thumbnail, originalUrl))
+                .feedUrl(upload(rendered.feed, originalUrl))
+                .fullUrl(upload(rendered.full, originalUrl))
+                .build();
+    }
+
+    private Path encode(BufferedImage source, int width) throws IOException {
+        if (source.getWidth() <= width) {
+            return null;
+        }
+        BufferedImage scaled = ImageCodec.scaleToWidth(source, width);
+        return ImageCodec.writeTemp(scaled, Path.of(mediaUploadProperties.getSpoolDir()),
+                mediaVariantProperties.getJpegQuality());
+    }
+
+    private String upload(Path file, String originalUrl) throws IOException {
+        return file != null ? mediaStorage.uploadImage(file.toFile()) : originalUrl;
+    }
+
+    /**
+     * File tạm của các biến thể, null khi ảnh gốc đã nhỏ hơn bề rộng đó. Đóng để xoá file.
+     */
+    public static final class Rendered implements AutoCloseable {
+
+        private Path thumbnail;
+        private Path feed;
+        private Path full;
+
+        @Override
+        public void close() throws IOException {
+            for (Path file : new Path[]{thumbnail, feed, full}) {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+}
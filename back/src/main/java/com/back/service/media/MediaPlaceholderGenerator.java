@@ -0,0 +1,87 @@
+package com.back.service.media;
+
+import com.back.model.entity.MediaPlaceholder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.*;
+
+@Slf4j
+@Component
+public class MediaPlaceholderGenerator {
+
+    private final MediaPlaceholderProperties mediaPlaceholderProperties;
+    private final ThreadPoolExecutor executor;
+    private final Counter skippedCounter;
+
+    public MediaPlaceholderGenerator(MediaPlaceholderProperties mediaPlaceholderProperties, MeterRegistry meterRegistry) {
+        this.mediaPlaceholderProperties = mediaPlaceholderProperties;
+        this.executor = new ThreadPoolExecutor(
+                mediaPlaceholderProperties.getThreads(),
+                mediaPlaceholderProperties.getThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(mediaPlaceholderProperties.getQueueCapacity()),
+                Thread.ofPlatform().name("media-placeholder-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.skippedCounter = Counter.builder("media.placeholder.skipped")
+                .description("Số ảnh bỏ qua placeholder vì pool CPU đã đầy hoặc quá thời gian")
+                .register(meterRegistry);
+    }
+
+    public Future<MediaPlaceholder> submit(BufferedImage image) {
+        if (!mediaPlaceholderProperties.isEnabled()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return executor.submit(() -> compute(image));
+        } catch (RejectedExecutionException e) {
+            skippedCounter.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Chờ placeholder tối đa media.placeholder.timeout-ms, quá hạn thì bỏ qua.
+     *
+     * <p>Đây là điểm chặn có chủ đích trên thread gọi: ảnh đã được giải mã sẵn trên thread đó để tạo biến thể, và
+     * placeholder được submit trước khi upload ảnh gốc cùng các biến thể, nên thường đã xong khi tới đây. Gắn
+     * placeholder bất đồng bộ rồi cập nhật lại media_blob, post_media, upload_session và users sau đó sẽ làm API trả
+     * về ảnh chưa có placeholder, nên không làm.
+     */
+    public MediaPlaceholder await(Future<MediaPlaceholder> future) {
+        try {
+            return future.get(mediaPlaceholderProperties.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            skippedCounter.increment();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Tính placeholder cho ảnh thất bại", e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private MediaPlaceholder compute(BufferedImage image) {
+        BufferedImage sample = ImageCodec.scaleToWidth(image, mediaPlaceholderProperties.getSampleWidth());
+        BlurHashEncoder.Result result = BlurHashEncoder.encode(sample,
+                mediaPlaceholderProperties.getComponentsX(), mediaPlaceholderProperties.getComponentsY());
+        return MediaPlaceholder.builder()
+                .blurhash(result.hash())
+                .dominantColor(String.format("#%06x", result.averageRgb()))
+                .width(image.getWidth())
+                .height(image.getHeight())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,18 @@
+package com.back.service.media;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "media.placeholder")
+public class MediaPlaceholderProperties {
+    private boolean enabled = true;
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int queueCapacity = 64;
+    private long timeoutMs = 2000;
+    private int componentsX = 4;
+    private int componentsY = 3;
+    private int sampleWidth = 32;
+}
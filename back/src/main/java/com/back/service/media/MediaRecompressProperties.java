@@ -0,0 +1,31 @@
+package com.back.service.media;
+
+import com.back.model.enums.EMediaKind;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "media.recompress")
+public class MediaRecompressProperties {
+    private boolean enabled = true;
+    private Map<EMediaKind, Profile> kinds = new EnumMap<>(Map.of(
+            EMediaKind.POST, new Profile(true, 2048, 0.82f),
+            EMediaKind.CHAT, new Profile(true, 1600, 0.78f),
+            EMediaKind.AVATAR, new Profile(true, 512, 0.85f)));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Profile {
+        private boolean enabled = true;
+        private int maxDimension = 2048;
+        private float quality = 0.82f;
+    }
+}
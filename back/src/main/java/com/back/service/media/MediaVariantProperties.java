@@ -0,0 +1,17 @@
+package com.back.service.media;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "media.variants")
+public class MediaVariantProperties {
+    private boolean enabled = true;
+    private int thumbnailWidth = 150;
+    private int feedWidth = 640;
+    private int fullWidth = 1080;
+    private float jpegQuality = 0.85f;
+    private int maxConcurrentDecodes = Math.max(1, Runtime.getRuntime().availableProcessors());
+}
@@ -2,9 +2,9 @@ package com.back.service.notification;
 
 import com.back.model.dto.response.APIResponse;
 import com.back.model.dto.response.NotificationResponse;
-import com.back.model.dto.response.UserSummaryResponse;
 import com.back.model.entity.Notification;
 import com.back.model.entity.User;
+import com.back.model.mapper.UserSummaryMapper;
 import com.back.repository.INotificationRepository;
 import com.back.repository.IUserRepository;
 import com.back.security.principal.CustomUserDetails;
@@ -55,12 +55,7 @@ public class NotificationServiceImpl implements INotificationService {
                             .message(message)
                             .isRead(n.isRead())
                             .createdAt(n.getCreatedAt())
-                            .sender(UserSummaryResponse.builder()
-                                    .id(opponent.getId())
-                                    .username(opponent.getUsername())
-                                    .fullName(opponent.getFullName())
-                                    .avatarUrl(opponent.getAvatarUrl())
-                                    .build())
+                            .sender(UserSummaryMapper.mapToUserSummary(opponent))
                             .conversationId(n.getConversation().getId())
                             .build();
                 })
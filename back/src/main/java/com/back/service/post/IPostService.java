@@ -9,7 +9,7 @@ import java.util.List;
 
 public interface IPostService{
     APIResponse<PostResponse> createPost(PostRequest request);
-    APIResponse<List<PostResponse>> getFeeds();
+    APIResponse<List<PostResponse>> getFeeds(String cursor, int limit);
     APIResponse<List<PostResponse>> getOwnPosts();
     APIResponse<List<PostResponse>> getOtherPosts(long userId);
     APIResponse<PostResponse> changePostVisibility(Long postId, EVisibility visibility);
@@ -0,0 +1,15 @@
+package com.back.service.post;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "post.publish")
+public class PostPublishProperties {
+    private boolean async = false;
+    private int workerThreads = 4;
+    private int queueCapacity = 200;
+    private int processingTimeoutMinutes = 30;
+}
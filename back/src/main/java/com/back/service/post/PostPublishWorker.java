@@ -0,0 +1,156 @@
+package com.back.service.post;
+
+import com.back.model.dto.response.PostStatusResponse;
+import com.back.model.entity.MediaBlob;
+import com.back.model.entity.Post;
+import com.back.model.entity.PostMedia;
+import com.back.model.enums.EMediaKind;
+import com.back.model.enums.EMediaType;
+import com.back.model.enums.EPostStatus;
+import com.back.model.event.PostPublishedEvent;
+import com.back.repository.IPostMediaRepository;
+import com.back.repository.IPostRepository;
+import com.back.service.storage.IMediaBlobService;
+import com.back.service.upload.MediaSpooler;
+import com.back.service.upload.ParallelMediaUploader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class PostPublishWorker {
+
+    private final IPostRepository postRepository;
+    private final IPostMediaRepository postmediaRepository;
+    private final IMediaBlobService mediaBlobService;
+    private final ParallelMediaUploader parallelMediaUploader;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PostPublishProperties postPublishProperties;
+    private final ThreadPoolExecutor executor;
+
+    public record PublishJob(Long postId, Long authorId, EMediaType mediaType, List<MediaSpooler.SpooledFile> files) {
+    }
+
+    public PostPublishWorker(IPostRepository postRepository,
+                             IPostMediaRepository postmediaRepository,
+                             IMediaBlobService mediaBlobService,
+                             ParallelMediaUploader parallelMediaUploader,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             SimpMessagingTemplate messagingTemplate,
+                             PostPublishProperties postPublishProperties) {
+        this.postRepository = postRepository;
+        this.postmediaRepository = postmediaRepository;
+        this.mediaBlobService = mediaBlobService;
+        this.parallelMediaUploader = parallelMediaUploader;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.messagingTemplate = messagingTemplate;
+        this.postPublishProperties = postPublishProperties;
+        this.executor = new ThreadPoolExecutor(
+                postPublishProperties.getWorkerThreads(),
+                postPublishProperties.getWorkerThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(postPublishProperties.getQueueCapacity()),
+                Thread.ofPlatform().name("post-publish-", 0).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public void submit(PublishJob job) {
+        executor.execute(() -> publish(job));
+    }
+
+    private void publish(PublishJob job) {
+        try {
+            List<MediaBlob> blobs = parallelMediaUploader.uploadAll(job.files(),
+                    file -> mediaBlobService.store(file, job.mediaType(), EMediaKind.POST));
+
+            Boolean published = transactionTemplate.execute(status -> {
+                // Bài đã bị đánh dấu FAILED do quá hạn (và tác giả đã được báo) thì không được lật lại thành PUBLISHED
+                if (postRepository.transitionStatus(job.postId(), EPostStatus.PROCESSING, EPostStatus.PUBLISHED) == 0) {
+                    return false;
+                }
+                Post post = postRepository.findById(job.postId())
+                        .orElseThrow(() -> new NoSuchElementException("Không tìm thấy bài đăng"));
+                postmediaRepository.saveAll(blobs.stream()
+                        .map(blob -> PostMedia.builder()
+                                .post(post)
+                                .url(blob.getUrl())
+                                .type(blob.getMediaType())
+                                .variants(blob.getVariants())
+                                .placeholder(blob.getPlaceholder())
+                                .build())
+                        .toList());
+                eventPublisher.publishEvent(new PostPublishedEvent(
+                        post.getId(), job.authorId(), post.getCreatedAt(), post.getVisibility()));
+                return true;
+            });
+            if (!Boolean.TRUE.equals(published)) {
+                log.warn("Bài đăng {} không còn ở trạng thái PROCESSING, bỏ qua kết quả xử lý media", job.postId());
+                return;
+            }
+            notifyAuthor(job.postId(), job.authorId(), EPostStatus.PUBLISHED, "Bài đăng đã được đăng");
+        } catch (RuntimeException e) {
+            log.error("Xử lý media cho bài đăng {} thất bại", job.postId(), e);
+            postRepository.transitionStatus(job.postId(), EPostStatus.PROCESSING, EPostStatus.FAILED);
+            notifyAuthor(job.postId(), job.authorId(), EPostStatus.FAILED, "Đăng bài thất bại");
+        } finally {
+            for (MediaSpooler.SpooledFile file : job.files()) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    log.warn("Không xoá được file tạm {}", file.path(), e);
+                }
+            }
+        }
+    }
+
+    private void notifyAuthor(Long postId, Long authorId, EPostStatus status, String message) {
+        messagingTemplate.convertAndSend(
+                "/topic/users/" + authorId + "/posts",
+                PostStatusResponse.builder()
+                        .postId(postId)
+                        .status(status)
+                        .message(message)
+                        .build());
+    }
+
+    @Scheduled(fixedDelayString = "${post.publish.stale-check-ms:300000}")
+    public void failStaleProcessingPosts() {
+        List<Object[]> stale = postRepository.findStaleProcessing(
+                LocalDateTime.now().minusMinutes(postPublishProperties.getProcessingTimeoutMinutes()));
+        int failed = 0;
+        for (Object[] row : stale) {
+            Long postId = (Long) row[0];
+            // Chuyển trạng thái có điều kiện: worker vừa đăng xong bài này thì bỏ qua, không báo FAILED sai
+            if (postRepository.transitionStatus(postId, EPostStatus.PROCESSING, EPostStatus.FAILED) > 0) {
+                notifyAuthor(postId, (Long) row[1], EPostStatus.FAILED, "Đăng bài thất bại do xử lý quá lâu");
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            log.warn("Đánh dấu {} bài đăng xử lý quá hạn là FAILED", failed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,36 @@
+package com.back.service.post;
+
+import com.back.model.dto.response.PostResponse;
+import com.back.service.counter.IPostCounterService;
+import com.back.service.reaction.IReactionStateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class PostResponseHydrator {
+
+    private final IPostCounterService postCounterService;
+    private final IReactionStateService reactionStateService;
+
+    public void hydrateCounters(List<PostResponse> posts) {
+        Map<Long, Long> reactionCounts = postCounterService.reactionCounts(
+                posts.stream().map(PostResponse::getId).toList());
+        for (PostResponse post : posts) {
+            post.setTotalReactions(reactionCounts.getOrDefault(post.getId(), 0L));
+            post.setTotalComments(post.getTotalComments() + postCounterService.pendingComments(post.getId()));
+        }
+    }
+
+    public void hydrateViewerState(List<PostResponse> posts, Long viewerId) {
+        Set<Long> reacted = reactionStateService.reactedPostIds(
+                viewerId, posts.stream().map(PostResponse::getId).toList());
+        for (PostResponse post : posts) {
+            post.setReactedByCurrentUser(reacted.contains(post.getId()));
+        }
+    }
+}
@@ -2,29 +2,48 @@ package com.back.service.post;
 
 import com.back.model.dto.request.PostRequest;
 import com.back.model.dto.response.APIResponse;
+import com.back.model.dto.response.PaginationResponse;
 import com.back.model.dto.response.PostMediaResponse;
 import com.back.model.dto.response.PostResponse;
 import com.back.model.dto.response.UserSummaryResponse;
 import com.back.model.entity.*;
 import com.back.model.enums.EFollowStatus;
+import com.back.model.enums.EMediaKind;
 import com.back.model.enums.EMediaType;
+import com.back.model.enums.EPostStatus;
 import com.back.model.enums.EVisibility;
+import com.back.model.event.PostPublishedEvent;
+import com.back.model.event.PostReactionToggledEvent;
+import com.back.model.event.PostVisibilityChangedEvent;
+import com.back.model.mapper.PostMediaMapper;
+import com.back.model.mapper.UserSummaryMapper;
 import com.back.repository.*;
 import com.back.security.principal.CustomUserDetails;
-import com.back.service.cloudinary.CloudinaryService;
+import com.back.service.storage.IMediaBlobService;
+import com.back.service.counter.IPostCounterService;
+import com.back.service.feed.IPullFeedService;
+import com.back.service.feed.PullFeedProperties;
+import com.back.service.timeline.ITimelineService;
+import com.back.service.timeline.TimelineProperties;
+import com.back.service.reaction.IReactionStateService;
+import com.back.service.upload.IUploadSessionService;
+import com.back.service.upload.MediaSpooler;
+import com.back.service.upload.ParallelMediaUploader;
+import com.back.utils.pagination.FeedCursor;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,15 +51,29 @@ public class PostServiceImpl implements IPostService{
 
     private final IPostRepository postRepository;
     private final IUserRepository userRepository;
-    private final CloudinaryService cloudinaryService;
+    private final IMediaBlobService mediaBlobService;
     private final IPostMediaRepository postmediaRepository;
-    private final ICommentRepository commentRepository;
     private final IFollowRepository followRepository;
     private final IPostReactionRepository postReactionRepository;
     private final IBlockedUserRepository blockedUserRepository;
+    private final ITimelineService timelineService;
+    private final TimelineProperties timelineProperties;
+    private final IPullFeedService pullFeedService;
+    private final PullFeedProperties pullFeedProperties;
+    private final PostResponseHydrator postResponseHydrator;
+    private final IPostCounterService postCounterService;
+    private final IReactionStateService reactionStateService;
+    private final ParallelMediaUploader parallelMediaUploader;
+    private final IUploadSessionService uploadSessionService;
+    private final MediaSpooler mediaSpooler;
+    private final PostPublishWorker postPublishWorker;
+    private final PostPublishProperties postPublishProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_FEED_LIMIT = 50;
 
     @Override
-    @Transactional
     public APIResponse<PostResponse> createPost(PostRequest request){
         CustomUserDetails currentUserDetails = (CustomUserDetails) SecurityContextHolder
                 .getContext()
@@ -50,85 +83,138 @@ public class PostServiceImpl implements IPostService{
             throw new NoSuchElementException("Không tìm thầy người dùng");
         }
 
-        User currentUser = userRepository.findById(currentUserDetails.getId())
-                .orElseThrow(() -> new NoSuchElementException("Không tìm thầy người dùng"));
-
-        List<MultipartFile> mediaFiles = request.getMediaFiles();
-        if (mediaFiles.isEmpty()) {
+        List<MultipartFile> mediaFiles = request.getMediaFiles() != null ? request.getMediaFiles() : List.of();
+        List<String> uploadIds = request.getUploadIds() != null ? request.getUploadIds() : List.of();
+        if (mediaFiles.isEmpty() && uploadIds.isEmpty()) {
             throw new IllegalArgumentException("Cần ít nhất 1 file media");
         }
         boolean hasVideo = mediaFiles.stream().anyMatch(f -> Objects.requireNonNull(f.getContentType()).startsWith("video"));
-        boolean hasImage = mediaFiles.stream().anyMatch(f -> Objects.requireNonNull(f.getContentType()).startsWith("image"));
-        List<PostMediaResponse> mediaList;
         if (hasVideo) {
-            try{
-                MultipartFile video = mediaFiles.getFirst();
-                String url = cloudinaryService.uploadVideo(video);
-                mediaList = List.of(PostMediaResponse.builder()
-                        .url(url)
-                        .type(EMediaType.VIDEO)
-                        .build());
-            }catch (IOException e){
-                throw new RuntimeException("Upload file lỗi", e);
-            }
+            mediaFiles = List.of(mediaFiles.getFirst());
+        }
+        EMediaType mediaType = hasVideo ? EMediaType.VIDEO : EMediaType.IMAGE;
 
-        } else {
-            mediaList = mediaFiles.stream().map(file -> {
-                try {
-                    String url = cloudinaryService.uploadImage(file);
-                    return PostMediaResponse.builder()
-                            .url(url)
-                            .type(EMediaType.IMAGE)
-                            .build();
-                } catch (IOException e) {
-                    throw new RuntimeException("Upload file lỗi", e);
-                }
-            }).toList();
+        if (postPublishProperties.isAsync()) {
+            return createPostAsync(currentUserDetails.getId(), request, mediaFiles, mediaType, uploadIds);
         }
 
-        Post post = Post.builder()
-                .content(request.getContent())
-                .visibility(request.getVisibility())
-                .user(currentUser)
-                .createdAt(LocalDateTime.now())
+        List<PostMedia> mediaList = new ArrayList<>(parallelMediaUploader.uploadAll(mediaFiles,
+                file -> toPostMedia(mediaBlobService.store(file, mediaType, EMediaKind.POST))));
+
+        User currentUser = userRepository.findById(currentUserDetails.getId())
+                .orElseThrow(() -> new NoSuchElementException("Không tìm thầy người dùng"));
+
+        Post post = transactionTemplate.execute(status -> {
+            Post saved = postRepository.save(Post.builder()
+                    .content(request.getContent())
+                    .visibility(request.getVisibility())
+                    .user(currentUser)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+
+            uploadSessionService.attach(currentUser.getId(), uploadIds).stream()
+                    .map(PostServiceImpl::toPostMedia)
+                    .forEach(mediaList::add);
+
+            mediaList.forEach(postMedia -> postMedia.setPost(saved));
+            postmediaRepository.saveAll(mediaList);
+
+            eventPublisher.publishEvent(new PostPublishedEvent(
+                    saved.getId(), currentUser.getId(), saved.getCreatedAt(), saved.getVisibility()));
+            return saved;
+        });
+
+        return APIResponse.<PostResponse>builder()
+                .data(toCreatedResponse(post, currentUser, mediaList))
+                .status(201)
+                .message("Bài đăng đã được tạo")
                 .build();
+    }
 
-        postRepository.save(post);
+    private APIResponse<PostResponse> createPostAsync(Long userId, PostRequest request, List<MultipartFile> mediaFiles,
+                                                      EMediaType mediaType, List<String> uploadIds) {
+        List<MediaSpooler.SpooledFile> spooledFiles = new ArrayList<>();
+        try {
+            for (MultipartFile file : mediaFiles) {
+                spooledFiles.add(mediaSpooler.spool(file));
+            }
 
-        for(PostMediaResponse m : mediaList){
-            PostMedia postMedia = PostMedia.builder()
-                    .post(post)
-                    .url(m.getUrl())
-                    .type(m.getType())
+            User currentUser = userRepository.findById(userId)
+                    .orElseThrow(() -> new NoSuchElementException("Không tìm thầy người dùng"));
+            List<PostMedia> readyMedia = new ArrayList<>();
+
+            Post post = transactionTemplate.execute(status -> {
+                Post saved = postRepository.save(Post.builder()
+                        .content(request.getContent())
+                        .visibility(request.getVisibility())
+                        .user(currentUser)
+                        .createdAt(LocalDateTime.now())
+                        .status(EPostStatus.PROCESSING)
+                        .build());
+                for (UploadSession upload : uploadSessionService.attach(userId, uploadIds)) {
+                    PostMedia postMedia = toPostMedia(upload);
+                    postMedia.setPost(saved);
+                    readyMedia.add(postmediaRepository.save(postMedia));
+                }
+                return saved;
+            });
+
+            postPublishWorker.submit(new PostPublishWorker.PublishJob(
+                    post.getId(), userId, mediaType, List.copyOf(spooledFiles)));
+
+            return APIResponse.<PostResponse>builder()
+                    .data(toCreatedResponse(post, currentUser, readyMedia))
+                    .status(202)
+                    .message("Bài đăng đang được xử lý")
                     .build();
-            postmediaRepository.save(postMedia);
+        } catch (IOException | RuntimeException e) {
+            for (MediaSpooler.SpooledFile file : spooledFiles) {
+                try {
+                    file.close();
+                } catch (IOException ignored) {
+                }
+            }
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Upload file lỗi", e);
         }
+    }
 
-        PostResponse response = PostResponse.builder()
+    private static PostMedia toPostMedia(MediaBlob blob) {
+        return PostMedia.builder()
+                .url(blob.getUrl())
+                .type(blob.getMediaType())
+                .variants(blob.getVariants())
+                .placeholder(blob.getPlaceholder())
+                .build();
+    }
+
+    private static PostMedia toPostMedia(UploadSession upload) {
+        return PostMedia.builder()
+                .url(upload.getMediaUrl())
+                .type(upload.getMediaType())
+                .variants(upload.getVariants())
+                .placeholder(upload.getPlaceholder())
+                .build();
+    }
+
+    private static PostResponse toCreatedResponse(Post post, User currentUser, List<PostMedia> mediaList) {
+        return PostResponse.builder()
                 .id(post.getId())
-                .content(post.getContent().trim())
+                .content(post.getContent() != null ? post.getContent().trim() : null)
                 .createdAt(post.getCreatedAt())
-                .user(UserSummaryResponse.builder()
-                        .id(currentUser.getId())
-                        .username(currentUser.getUsername())
-                        .fullName(currentUser.getFullName())
-                        .avatarUrl(currentUser.getAvatarUrl())
-                        .build())
-                .mediaList(mediaList)
+                .status(post.getStatus())
+                .user(UserSummaryMapper.mapToUserSummary(currentUser))
+                .mediaList(mediaList.stream().map(PostMediaMapper::mapToPostMediaResponse).toList())
                 .totalReactions(0)
                 .totalComments(0)
                 .reactedByCurrentUser(false)
                 .build();
-
-        return APIResponse.<PostResponse>builder()
-                .data(response)
-                .status(201)
-                .message("Bài đăng đã được tạo")
-                .build();
     }
 
     @Override
-    public APIResponse<List<PostResponse>> getFeeds() {
+    public APIResponse<List<PostResponse>> getFeeds(String cursor, int limit) {
         CustomUserDetails currentUserDetails = (CustomUserDetails) SecurityContextHolder
                 .getContext()
                 .getAuthentication()
@@ -138,55 +224,132 @@ public class PostServiceImpl implements IPostService{
             throw new NoSuchElementException("Không tìm thấy người dùng");
         }
 
-        User currentUser = userRepository.findById(currentUserDetails.getId())
-                .orElseThrow(() -> new NoSuchElementException("Không tìm thấy người dùng"));
+        int pageSize = Math.clamp(limit, 1, MAX_FEED_LIMIT);
+        FeedCursor feedCursor = cursor == null || cursor.isBlank() ? null : FeedCursor.decode(cursor);
+
+        FeedPage feedPage;
+        if (pullFeedProperties.isEnabled()) {
+            feedPage = readPullFeed(currentUserDetails.getId(), feedCursor, pageSize);
+        } else if (timelineProperties.isEnabled()) {
+            feedPage = readTimelineFeed(currentUserDetails.getId(), feedCursor, pageSize);
+        } else {
+            feedPage = readFollowingFeed(currentUserDetails.getId(), feedCursor, pageSize);
+        }
 
-        List<Follow> followings = followRepository.findByFollowerAndStatus(currentUser, EFollowStatus.ACCEPTED);
+        List<Post> posts = loadPostsInOrder(feedPage.postIds());
+        if (posts.size() < feedPage.postIds().size()) {
+            // Id không còn tải được là bài đã bị xoá: bỏ khỏi cache feed để các trang sau không gặp lại
+            Set<Long> loadedIds = posts.stream().map(Post::getId).collect(Collectors.toSet());
+            feedPage.evictMissing().accept(feedPage.postIds().stream()
+                    .filter(postId -> !loadedIds.contains(postId))
+                    .toList());
+        }
 
-        List<User> followingUsers = followings.stream()
-                .map(Follow::getFollowing)
-                .toList();
+        APIResponse<List<PostResponse>> response = getListAPIResponse(posts, currentUserDetails.getId());
+        response.setMeta(PaginationResponse.builder()
+                .pageSize(pageSize)
+                .nextCursor(feedPage.nextCursor() != null ? feedPage.nextCursor().encode() : null)
+                .hasNext(feedPage.nextCursor() != null)
+                .build());
+        return response;
+    }
+
+    private FeedPage readTimelineFeed(Long userId, FeedCursor cursor, int pageSize) {
+        List<TimelineEntry> entries = timelineService.readPage(userId, cursor, pageSize + 1);
+
+        boolean hasNext = entries.size() > pageSize;
+        List<TimelineEntry> page = hasNext ? entries.subList(0, pageSize) : entries;
+
+        return new FeedPage(
+                page.stream().map(TimelineEntry::getPostId).toList(),
+                hasNext ? new FeedCursor(page.getLast().getCreatedAt(), page.getLast().getPostId()) : null,
+                timelineService::removePosts
+        );
+    }
+
+    private FeedPage readPullFeed(Long userId, FeedCursor cursor, int pageSize) {
+        List<Long> authorIds = getFeedAuthorIds(userId);
+
+        Optional<List<FeedCursor>> entries = pullFeedService.readPage(userId, authorIds, cursor, pageSize + 1);
+        if (entries.isEmpty()) {
+            return readFollowingFeed(userId, authorIds, cursor, pageSize);
+        }
 
-        followingUsers = Stream.concat(followingUsers.stream(), Stream.of(currentUser))
+        boolean hasNext = entries.get().size() > pageSize;
+        List<FeedCursor> page = hasNext ? entries.get().subList(0, pageSize) : entries.get();
+
+        return new FeedPage(
+                page.stream().map(FeedCursor::id).toList(),
+                hasNext ? page.getLast() : null,
+                missingIds -> pullFeedService.evictPosts(authorIds, missingIds)
+        );
+    }
+
+    private FeedPage readFollowingFeed(Long userId, FeedCursor cursor, int pageSize) {
+        return readFollowingFeed(userId, getFeedAuthorIds(userId), cursor, pageSize);
+    }
+
+    private List<Long> getFeedAuthorIds(Long userId) {
+        List<Long> authorIds = new ArrayList<>(followRepository
+                .findFollowingIdsByFollowerIdAndStatus(userId, EFollowStatus.ACCEPTED));
+        authorIds.add(userId);
+        return authorIds;
+    }
+
+    private FeedPage readFollowingFeed(Long userId, List<Long> authorIds, FeedCursor cursor, int pageSize) {
+        List<Post> posts = cursor == null
+                ? postRepository.findViewableFeedFirstPage(authorIds, userId, pageSize + 1)
+                : postRepository.findViewableFeedPageBefore(
+                        authorIds, userId, cursor.createdAt(), cursor.id(), pageSize + 1);
+
+        boolean hasNext = posts.size() > pageSize;
+        List<Post> page = hasNext ? posts.subList(0, pageSize) : posts;
+
+        return new FeedPage(
+                page.stream().map(Post::getId).toList(),
+                hasNext ? FeedCursor.of(page.getLast()) : null,
+                missingIds -> {
+                }
+        );
+    }
+
+    private List<Post> loadPostsInOrder(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Post> posts = postRepository.findAllWithUserAndMediaByIdIn(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return postIds.stream()
+                .map(posts::get)
+                .filter(Objects::nonNull)
                 .toList();
+    }
 
-        List<Post> posts = postRepository.findByUserInOrderByCreatedAtDesc(followingUsers);
-        List<Post> postsWithMedia = postRepository.findAllWithMedia(posts);
-        return getListAPIResponse(postsWithMedia);
+    private record FeedPage(List<Long> postIds, FeedCursor nextCursor, Consumer<List<Long>> evictMissing) {
     }
 
-    private APIResponse<List<PostResponse>> getListAPIResponse(List<Post> posts) {
+    private APIResponse<List<PostResponse>> getListAPIResponse(List<Post> posts, Long viewerId) {
         List<PostResponse> response = posts.stream()
                 .map(post -> {
-                    long totalReactions = postReactionRepository.countReactionsByPostId(post.getId());
-                    long totalComments = commentRepository.countCommentsByPostId(post.getId());
-
                     List<PostMediaResponse> mediaList = post.getMedia().stream()
-                            .map(m -> PostMediaResponse.builder()
-                                    .id(m.getId())
-                                    .url(m.getUrl())
-                                    .type(m.getType())
-                                    .build())
+                            .map(PostMediaMapper::mapToPostMediaResponse)
                             .toList();
 
                     return PostResponse.builder()
                             .id(post.getId())
                             .content(post.getContent())
                             .createdAt(post.getCreatedAt())
-                            .user(UserSummaryResponse.builder()
-                                    .id(post.getUser().getId())
-                                    .username(post.getUser().getUsername())
-                                    .fullName(post.getUser().getFullName())
-                                    .avatarUrl(post.getUser().getAvatarUrl())
-                                    .build())
+                            .status(post.getStatus())
+                            .user(UserSummaryMapper.mapToUserSummary(post.getUser()))
                             .mediaList(mediaList)
-                            .totalReactions((int) totalReactions)
-                            .totalComments((int) totalComments)
-                            .reactedByCurrentUser(false)
+                            .totalComments(post.getCommentCount())
                             .build();
                 })
                 .toList();
 
+        postResponseHydrator.hydrateCounters(response);
+        postResponseHydrator.hydrateViewerState(response, viewerId);
+
         return APIResponse.<List<PostResponse>>builder()
                 .data(response)
                 .message("Lấy feeds thành công")
@@ -210,7 +373,7 @@ public class PostServiceImpl implements IPostService{
 
         List<Post> posts = postRepository.findByUserByCreateAtDesc(currentUser);
         List<Post> postsWithMedia = postRepository.findAllWithMedia(posts);
-        return getListAPIResponse(postsWithMedia);
+        return getListAPIResponse(postsWithMedia, currentUserDetails.getId());
     }
 
     @Override
@@ -230,12 +393,12 @@ public class PostServiceImpl implements IPostService{
         boolean isBlockedByTarget  = blockedUserRepository.existsByUserAndBlockedUser(user, currentUser);
 
         if (isBlockedByMe || isBlockedByTarget) {
-            return getListAPIResponse(List.of());
+            return getListAPIResponse(List.of(), currentUserDetails.getId());
         }
 
-        List<Post> posts = postRepository.findByUserByCreateAtDesc(user);
+        List<Post> posts = postRepository.findByUserAndStatusByCreateAtDesc(user, EPostStatus.PUBLISHED);
         List<Post> postsWithMedia = postRepository.findAllWithMedia(posts);
-        return getListAPIResponse(postsWithMedia);
+        return getListAPIResponse(postsWithMedia, currentUserDetails.getId());
     }
 
     @Override
@@ -249,24 +412,24 @@ public class PostServiceImpl implements IPostService{
 
         postRepository.save(post);
 
+        eventPublisher.publishEvent(new PostVisibilityChangedEvent(post.getId(), post.getUser().getId(), visibility));
+        if (visibility != EVisibility.PUBLIC) {
+            timelineService.removePostFromFollowerTimelines(post.getId(), post.getUser().getId());
+        } else if (post.getStatus() == EPostStatus.PUBLISHED) {
+            eventPublisher.publishEvent(new PostPublishedEvent(
+                    post.getId(), post.getUser().getId(), post.getCreatedAt(), visibility));
+        }
+
         List<PostMediaResponse> mediaList = postMediaList.stream()
-                .map(m -> PostMediaResponse.builder()
-                        .id(m.getId())
-                        .url(m.getUrl())
-                        .type(m.getType())
-                        .build())
+                .map(PostMediaMapper::mapToPostMediaResponse)
                 .toList();
 
         PostResponse response = PostResponse.builder()
                 .id(post.getId())
                 .content(post.getContent())
                 .createdAt(post.getCreatedAt())
-                .user(UserSummaryResponse.builder()
-                        .id(post.getId())
-                        .username(post.getUser().getUsername())
-                        .fullName(post.getUser().getFullName())
-                        .avatarUrl(post.getUser().getAvatarUrl())
-                        .build())
+                .status(post.getStatus())
+                .user(UserSummaryMapper.mapToUserSummary(post.getUser()))
                 .mediaList(mediaList)
                 .totalReactions(0)
                 .totalComments(0)
@@ -310,26 +473,21 @@ public class PostServiceImpl implements IPostService{
             reacted = true;
         }
 
-        long totalReactions = postReactionRepository.countReactionsByPostId(post.getId());
-        long totalComments = commentRepository.countCommentsByPostId(post.getId());
+        postCounterService.incrementReactions(post.getId(), reacted ? 1 : -1);
+        eventPublisher.publishEvent(new PostReactionToggledEvent(post.getId(), currentUser.getId(), reacted));
+
+        long totalReactions = postCounterService.reactionCount(post.getId());
+        long totalComments = post.getCommentCount() + postCounterService.pendingComments(post.getId());
         List<PostMediaResponse> mediaList = postmediaRepository.findByPost(post).stream()
-                .map(m -> PostMediaResponse.builder()
-                        .id(m.getId())
-                        .url(m.getUrl())
-                        .type(m.getType())
-                        .build())
+                .map(PostMediaMapper::mapToPostMediaResponse)
                 .toList();
 
         PostResponse response = PostResponse.builder()
                 .id(post.getId())
                 .content(post.getContent())
                 .createdAt(post.getCreatedAt())
-                .user(UserSummaryResponse.builder()
-                        .id(post.getUser().getId())
-                        .username(post.getUser().getUsername())
-                        .fullName(post.getUser().getFullName())
-                        .avatarUrl(post.getUser().getAvatarUrl())
-                        .build())
+                .status(post.getStatus())
+                .user(UserSummaryMapper.mapToUserSummary(post.getUser()))
                 .mediaList(mediaList)
                 .totalReactions(totalReactions)
                 .totalComments(totalComments)
@@ -348,33 +506,25 @@ public class PostServiceImpl implements IPostService{
                 (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
         Post post = postRepository.findById(postId)
+                .filter(p -> p.getStatus() == EPostStatus.PUBLISHED
+                        || p.getUser().getId().equals(currentUserDetails.getId()))
                 .orElseThrow(() -> new NoSuchElementException("Không tìm thấy bài đăng"));
         List<PostMedia> postMediaList = postmediaRepository.findByPost(post);
 
         List<PostMediaResponse> mediaList = postMediaList.stream()
-                .map(m -> PostMediaResponse.builder()
-                        .id(m.getId())
-                        .url(m.getUrl())
-                        .type(m.getType())
-                        .build())
+                .map(PostMediaMapper::mapToPostMediaResponse)
                 .toList();
 
-        List<Comment> comments = commentRepository.findByPost(post);
-
         PostResponse postResponse = PostResponse.builder()
                 .id(post.getId())
                 .content(post.getContent())
-                .totalReactions(post.getReactions().size())
-                .totalComments(comments.size())
-                .reactedByCurrentUser(postReactionRepository.existsByPostIdAndUserId(postId, currentUserDetails.getId()))
+                .totalReactions(postCounterService.reactionCount(postId))
+                .totalComments(post.getCommentCount() + postCounterService.pendingComments(postId))
+                .reactedByCurrentUser(reactionStateService.hasReacted(currentUserDetails.getId(), postId))
                 .mediaList(mediaList)
                 .createdAt(post.getCreatedAt())
-                .user(UserSummaryResponse.builder()
-                        .id(post.getUser().getId())
-                        .username(post.getUser().getUsername())
-                        .fullName(post.getUser().getFullName())
-                        .avatarUrl(post.getUser().getAvatarUrl())
-                        .build())
+                .status(post.getStatus())
+                .user(UserSummaryMapper.mapToUserSummary(post.getUser()))
                 .build();
 
         return APIResponse.<PostResponse>builder()
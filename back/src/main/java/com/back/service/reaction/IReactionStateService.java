@@ -0,0 +1,11 @@
+package com.back.service.reaction;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface IReactionStateService{
+    boolean hasReacted(Long userId, Long postId);
+    Set<Long> reactedPostIds(Long userId, Collection<Long> postIds);
+    void invalidate(Long userId);
+    void invalidateAll();
+}
@@ -0,0 +1,68 @@
+package com.back.service.reaction;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public class LikedPostIndex {
+
+    private final Roaring64Bitmap postIds = new Roaring64Bitmap();
+    private boolean loaded;
+    private long loadedAt;
+    private long sizeInBytes;
+
+    public synchronized void ensureLoaded(Supplier<List<Long>> loader) {
+        if (loaded) {
+            return;
+        }
+        for (Long postId : loader.get()) {
+            postIds.addLong(postId);
+        }
+        postIds.runOptimize();
+        loaded = true;
+        loadedAt = System.currentTimeMillis();
+        sizeInBytes = postIds.getLongSizeInBytes();
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    public synchronized boolean isExpired(long ttlMs, long now) {
+        return loaded && ttlMs > 0 && now - loadedAt > ttlMs;
+    }
+
+    public synchronized boolean contains(Long postId) {
+        return postIds.contains(postId);
+    }
+
+    public synchronized Set<Long> retain(Collection<Long> candidates) {
+        Set<Long> result = new HashSet<>();
+        for (Long postId : candidates) {
+            if (postIds.contains(postId)) {
+                result.add(postId);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void apply(Long postId, boolean reacted) {
+        if (!loaded) {
+            return;
+        }
+        if (reacted) {
+            postIds.addLong(postId);
+        } else {
+            postIds.removeLong(postId);
+        }
+        sizeInBytes = postIds.getLongSizeInBytes();
+    }
+
+    public synchronized long sizeInBytes() {
+        return sizeInBytes;
+    }
+}
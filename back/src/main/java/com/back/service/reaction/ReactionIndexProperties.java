@@ -0,0 +1,17 @@
+package com.back.service.reaction;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "reaction.index")
+public class ReactionIndexProperties {
+    private boolean enabled = true;
+    private long memoryBudgetBytes = 64L * 1024 * 1024;
+    // 0 là không hết hạn: lượt thích trên node này cập nhật bitmap trực tiếp, lượt thích ở node khác được báo qua broker
+    private long ttlMs = 0;
+    // Chu kỳ kiểm tra và nối lại kết nối nhận thông báo từ broker khi chat.broker.mode=relay
+    private long syncRetryMs = 5000;
+}
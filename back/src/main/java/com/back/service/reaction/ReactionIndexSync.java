@@ -0,0 +1,120 @@
+package com.back.service.reaction;
+
+import com.back.model.event.PostReactionToggledEvent;
+import com.back.security.config.ChatBrokerProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.*;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.reflect.Type;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Khi chạy nhiều node, báo cho các node khác bỏ bitmap của người vừa thích/bỏ thích qua broker STOMP dùng chung.
+ * Gửi qua relay của node, nhận bằng một kết nối riêng với tài khoản system; client không được subscribe
+ * {@link #DESTINATION} (xem WebSocketConfig).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "chat.broker.mode", havingValue = "relay")
+public class ReactionIndexSync extends StompSessionHandlerAdapter {
+
+    public static final String DESTINATION = "/topic/internal.reaction-index";
+
+    private final IReactionStateService reactionStateService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatBrokerProperties chatBrokerProperties;
+    private final ReactorNettyTcpStompClient stompClient;
+    private final String origin = UUID.randomUUID().toString();
+    private final AtomicBoolean connecting = new AtomicBoolean();
+    private volatile StompSession session;
+
+    public ReactionIndexSync(IReactionStateService reactionStateService,
+                             SimpMessagingTemplate messagingTemplate,
+                             ChatBrokerProperties chatBrokerProperties) {
+        this.reactionStateService = reactionStateService;
+        this.messagingTemplate = messagingTemplate;
+        this.chatBrokerProperties = chatBrokerProperties;
+        this.stompClient = new ReactorNettyTcpStompClient(chatBrokerProperties.getRelayHost(), chatBrokerProperties.getRelayPort());
+        this.stompClient.setMessageConverter(new StringMessageConverter());
+        this.stompClient.setDefaultHeartbeat(new long[]{0, 0});
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReactionToggled(PostReactionToggledEvent event) {
+        try {
+            messagingTemplate.convertAndSend(DESTINATION, origin + ":" + event.userId());
+        } catch (RuntimeException e) {
+            log.warn("Không gửi được thông báo bitmap lượt thích của user {} lên broker", event.userId(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reaction.index.sync-retry-ms:5000}")
+    public void ensureConnected() {
+        StompSession current = session;
+        if ((current != null && current.isConnected()) || !connecting.compareAndSet(false, true)) {
+            return;
+        }
+        StompHeaders headers = new StompHeaders();
+        headers.setLogin(chatBrokerProperties.getSystemLogin());
+        headers.setPasscode(chatBrokerProperties.getSystemPasscode());
+        if (chatBrokerProperties.getVirtualHost() != null) {
+            headers.setHost(chatBrokerProperties.getVirtualHost());
+        }
+        stompClient.connectAsync(headers, this).whenComplete((connected, error) -> {
+            connecting.set(false);
+            if (error != null) {
+                log.warn("Không kết nối được broker để nhận thông báo bitmap lượt thích: {}", error.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        session.subscribe(DESTINATION, this);
+        this.session = session;
+        // Thông báo gửi trong lúc mất kết nối đã bị lỡ, bỏ toàn bộ bitmap để nạp lại từ database
+        reactionStateService.invalidateAll();
+    }
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+        return String.class;
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+        String message = (String) payload;
+        int separator = message.lastIndexOf(':');
+        if (separator < 0 || message.substring(0, separator).equals(origin)) {
+            return;
+        }
+        try {
+            reactionStateService.invalidate(Long.valueOf(message.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Bỏ qua thông báo bitmap lượt thích không hợp lệ: {}", message);
+        }
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        log.warn("Mất kết nối broker nhận thông báo bitmap lượt thích: {}", exception.getMessage());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        stompClient.shutdown();
+    }
+}
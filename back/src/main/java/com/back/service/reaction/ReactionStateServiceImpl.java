@@ -0,0 +1,145 @@
+package com.back.service.reaction;
+
+import com.back.model.event.PostReactionToggledEvent;
+import com.back.repository.IPostReactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+@Service
+public class ReactionStateServiceImpl implements IReactionStateService{
+
+    private final IPostReactionRepository postReactionRepository;
+    private final ReactionIndexProperties reactionIndexProperties;
+
+    private final LinkedHashMap<Long, LikedPostIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<LikedPostIndex, Long> accountedBytes = new IdentityHashMap<>();
+    private long usedBytes;
+
+    public ReactionStateServiceImpl(IPostReactionRepository postReactionRepository,
+                                    ReactionIndexProperties reactionIndexProperties,
+                                    MeterRegistry meterRegistry) {
+        this.postReactionRepository = postReactionRepository;
+        this.reactionIndexProperties = reactionIndexProperties;
+
+        Gauge.builder("reaction.index.users", this, service -> service.cachedUsers())
+                .description("Số người dùng đang có bitmap bài đăng đã thích trong bộ nhớ")
+                .register(meterRegistry);
+        Gauge.builder("reaction.index.bytes", this, service -> service.cachedBytes())
+                .description("Bộ nhớ ước tính của các bitmap bài đăng đã thích")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean hasReacted(Long userId, Long postId) {
+        if (!reactionIndexProperties.isEnabled()) {
+            return postReactionRepository.existsByPostIdAndUserId(postId, userId);
+        }
+        return index(userId).contains(postId);
+    }
+
+    @Override
+    public Set<Long> reactedPostIds(Long userId, Collection<Long> postIds) {
+        if (userId == null || postIds.isEmpty()) {
+            return Set.of();
+        }
+        if (!reactionIndexProperties.isEnabled()) {
+            return new HashSet<>(postReactionRepository.findReactedPostIds(userId, postIds));
+        }
+        return index(userId).retain(postIds);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReactionToggled(PostReactionToggledEvent event) {
+        LikedPostIndex index;
+        synchronized (indexes) {
+            index = indexes.get(event.userId());
+        }
+        if (index != null) {
+            index.apply(event.postId(), event.reacted());
+            account(event.userId(), index);
+        }
+    }
+
+    // Lượt thích ghi ở node khác không đi qua onReactionToggled của node này, bitmap phải nạp lại từ database
+    @Override
+    public void invalidate(Long userId) {
+        synchronized (indexes) {
+            LikedPostIndex index = indexes.remove(userId);
+            if (index != null) {
+                release(index);
+            }
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (indexes) {
+            indexes.clear();
+            accountedBytes.clear();
+            usedBytes = 0;
+        }
+    }
+
+    private LikedPostIndex index(Long userId) {
+        LikedPostIndex index;
+        synchronized (indexes) {
+            index = indexes.get(userId);
+            if (index != null && index.isExpired(reactionIndexProperties.getTtlMs(), System.currentTimeMillis())) {
+                release(index);
+                index = null;
+            }
+            if (index == null) {
+                index = new LikedPostIndex();
+                indexes.put(userId, index);
+            }
+        }
+        if (!index.isLoaded()) {
+            index.ensureLoaded(() -> postReactionRepository.findPostIdsByUserId(userId));
+            account(userId, index);
+        }
+        return index;
+    }
+
+    private void account(Long userId, LikedPostIndex index) {
+        synchronized (indexes) {
+            if (indexes.get(userId) != index) {
+                return;
+            }
+            long size = index.sizeInBytes();
+            Long previous = accountedBytes.put(index, size);
+            usedBytes += size - (previous != null ? previous : 0L);
+
+            Iterator<Map.Entry<Long, LikedPostIndex>> eldest = indexes.entrySet().iterator();
+            while (usedBytes > reactionIndexProperties.getMemoryBudgetBytes() && eldest.hasNext()) {
+                Map.Entry<Long, LikedPostIndex> entry = eldest.next();
+                if (entry.getKey().equals(userId)) {
+                    continue;
+                }
+                release(entry.getValue());
+                eldest.remove();
+            }
+        }
+    }
+
+    private void release(LikedPostIndex index) {
+        Long evicted = accountedBytes.remove(index);
+        usedBytes -= evicted != null ? evicted : 0L;
+    }
+
+    private int cachedUsers() {
+        synchronized (indexes) {
+            return indexes.size();
+        }
+    }
+
+    private long cachedBytes() {
+        synchronized (indexes) {
+            return usedBytes;
+        }
+    }
+}
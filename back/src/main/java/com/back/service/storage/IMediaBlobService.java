@@ -0,0 +1,16 @@
+package com.back.service.storage;
+
+import com.back.model.entity.MediaBlob;
+import com.back.model.enums.EMediaKind;
+import com.back.model.enums.EMediaType;
+import com.back.service.upload.MediaSpooler;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface IMediaBlobService{
+    MediaBlob store(MultipartFile file, EMediaType type, EMediaKind kind) throws IOException;
+    MediaBlob store(MediaSpooler.SpooledFile file, EMediaType type, EMediaKind kind) throws IOException;
+    MediaBlob store(Path file, EMediaType type, EMediaKind kind) throws IOException;
+}
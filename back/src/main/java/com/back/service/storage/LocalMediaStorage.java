@@ -0,0 +1,84 @@
+package com.back.service.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Service
+@ConditionalOnProperty(name = "media.storage.type", havingValue = "local")
+public class LocalMediaStorage implements MediaStorage {
+
+    private final MediaStorageProperties mediaStorageProperties;
+    private final Path root;
+
+    public LocalMediaStorage(MediaStorageProperties mediaStorageProperties) throws IOException {
+        this.mediaStorageProperties = mediaStorageProperties;
+        this.root = Files.createDirectories(Path.of(mediaStorageProperties.getLocalDir())).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String uploadImage(MultipartFile file) throws IOException {
+        return store(file);
+    }
+
+    @Override
+    public String uploadVideo(MultipartFile file) throws IOException {
+        return store(file);
+    }
+
+    @Override
+    public String uploadImage(File file) throws IOException {
+        return store(file);
+    }
+
+    @Override
+    public String uploadVideo(File file) throws IOException {
+        return store(file);
+    }
+
+    public Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Đường dẫn media không hợp lệ");
+        }
+        return path;
+    }
+
+    private String store(MultipartFile file) throws IOException {
+        String key = newKey(file.getOriginalFilename());
+        Path target = prepare(key);
+        file.transferTo(target);
+        return toUrl(key);
+    }
+
+    private String store(File file) throws IOException {
+        String key = newKey(file.getName());
+        Files.copy(file.toPath(), prepare(key));
+        return toUrl(key);
+    }
+
+    private Path prepare(String key) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        return target;
+    }
+
+    private static String newKey(String originalName) {
+        String extension = StringUtils.getFilenameExtension(originalName);
+        LocalDate today = LocalDate.now();
+        return String.format("%d/%02d/%02d/%s%s", today.getYear(), today.getMonthValue(), today.getDayOfMonth(),
+                UUID.randomUUID(), extension != null ? "." + extension.toLowerCase() : "");
+    }
+
+    private String toUrl(String key) {
+        return mediaStorageProperties.getPublicBaseUrl() + "/" + key;
+    }
+}
@@ -0,0 +1,163 @@
+package com.back.service.storage;
+
+import com.back.model.entity.MediaBlob;
+import com.back.model.entity.MediaPlaceholder;
+import com.back.model.enums.EMediaKind;
+import com.back.model.enums.EMediaType;
+import com.back.repository.IMediaBlobRepository;
+import com.back.service.media.ImageCodec;
+import com.back.service.media.ImageDecodeLimiter;
+import com.back.service.media.ImageRecompressor;
+import com.back.service.media.ImageVariantGenerator;
+import com.back.service.media.MediaPlaceholderGenerator;
+import com.back.service.upload.MediaSpooler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.Future;
+
+@Service
+public class MediaBlobServiceImpl implements IMediaBlobService{
+
+    private final IMediaBlobRepository mediaBlobRepository;
+    private final MediaStorage mediaStorage;
+    private final MediaSpooler mediaSpooler;
+    private final ImageVariantGenerator imageVariantGenerator;
+    private final MediaPlaceholderGenerator mediaPlaceholderGenerator;
+    private final ImageRecompressor imageRecompressor;
+    private final ImageDecodeLimiter imageDecodeLimiter;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public MediaBlobServiceImpl(IMediaBlobRepository mediaBlobRepository,
+                                MediaStorage mediaStorage,
+                                MediaSpooler mediaSpooler,
+                                ImageVariantGenerator imageVariantGenerator,
+                                MediaPlaceholderGenerator mediaPlaceholderGenerator,
+                                ImageRecompressor imageRecompressor,
+                                ImageDecodeLimiter imageDecodeLimiter,
+                                MeterRegistry meterRegistry) {
+        this.mediaBlobRepository = mediaBlobRepository;
+        this.mediaStorage = mediaStorage;
+        this.mediaSpooler = mediaSpooler;
+        this.imageVariantGenerator = imageVariantGenerator;
+        this.mediaPlaceholderGenerator = mediaPlaceholderGenerator;
+        this.imageRecompressor = imageRecompressor;
+        this.imageDecodeLimiter = imageDecodeLimiter;
+        this.hitCounter = Counter.builder("media.dedup.hits")
+                .description("Số file trùng nội dung, dùng lại URL đã có")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("media.dedup.misses")
+                .description("Số file mới phải upload lên storage")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public MediaBlob store(MultipartFile file, EMediaType type, EMediaKind kind) throws IOException {
+        try (MediaSpooler.SpooledFile spooled = mediaSpooler.spool(file)) {
+            return store(spooled, type, kind);
+        }
+    }
+
+    @Override
+    public MediaBlob store(MediaSpooler.SpooledFile file, EMediaType type, EMediaKind kind) throws IOException {
+        return store(file.path(), file.sha256(), type, kind);
+    }
+
+    @Override
+    public MediaBlob store(Path file, EMediaType type, EMediaKind kind) throws IOException {
+        return store(file, MediaSpooler.sha256(file), type, kind);
+    }
+
+    private MediaBlob store(Path file, String contentHash, EMediaType type, EMediaKind kind) throws IOException {
+        String hash = dedupKey(contentHash, type, kind);
+        Optional<MediaBlob> existing = mediaBlobRepository.findById(hash);
+        if (existing.isPresent()) {
+            hitCounter.increment();
+            return existing.get();
+        }
+
+        missCounter.increment();
+        MediaBlob blob = MediaBlob.builder()
+                .hash(hash)
+                .mediaType(type)
+                .size(Files.size(file))
+                .createdAt(LocalDateTime.now())
+                .build();
+        if (type == EMediaType.VIDEO) {
+            blob.setUrl(mediaStorage.uploadVideo(file.toFile()));
+        } else {
+            storeImage(blob, file, kind);
+        }
+
+        if (mediaBlobRepository.insertIfAbsent(blob) == 0) {
+            return mediaBlobRepository.findById(hash).orElse(blob);
+        }
+        return blob;
+    }
+
+    private void storeImage(MediaBlob blob, Path file, EMediaKind kind) throws IOException {
+        Path recompressed = null;
+        ImageVariantGenerator.Rendered variants = null;
+        Future<MediaPlaceholder> placeholder = null;
+        try {
+            // Chỉ giữ permit khi giải mã, thu nhỏ và mã hoá ra file tạm; bitmap hết tham chiếu khi ra khỏi khối này
+            try (ImageDecodeLimiter.Permit ignored = imageDecodeLimiter.acquire()) {
+                int orientation = ImageCodec.readExifOrientation(file);
+                Optional<BufferedImage> image = ImageCodec.read(file).map(img -> ImageCodec.applyOrientation(img, orientation));
+                Optional<BufferedImage> fitted = image.map(img -> imageRecompressor.fit(img, kind));
+                recompressed = fitted.isPresent()
+                        ? imageRecompressor.recompress(file, fitted.get(), orientation > 0, kind).orElse(null)
+                        : null;
+                // Biến thể và placeholder lấy từ đúng ảnh được lưu, để biến thể không lớn hơn bản gốc đã thu nhỏ
+                Optional<BufferedImage> storedImage = recompressed != null ? fitted : image;
+                if (storedImage.isPresent()) {
+                    // Blurhash chạy trên pool CPU riêng, song song với lúc upload ảnh gốc và các biến thể
+                    placeholder = mediaPlaceholderGenerator.submit(storedImage.get());
+                    variants = imageVariantGenerator.render(storedImage.get());
+                }
+            }
+
+            // Upload chỉ chờ mạng nên chạy ngoài permit, không bị giới hạn theo số CPU
+            Path stored = recompressed != null ? recompressed : file;
+            blob.setSize(Files.size(stored));
+            blob.setUrl(mediaStorage.uploadImage(stored.toFile()));
+            if (placeholder != null) {
+                blob.setVariants(imageVariantGenerator.upload(variants, blob.getUrl()));
+                blob.setPlaceholder(mediaPlaceholderGenerator.await(placeholder));
+            }
+        } finally {
+            if (variants != null) {
+                variants.close();
+            }
+            if (recompressed != null) {
+                Files.deleteIfExists(recompressed);
+            }
+        }
+    }
+
+    // Ảnh được nén lại khác nhau theo từng loại, nên ảnh chat/avatar không dùng chung bản lưu với ảnh bài đăng
+    private static String dedupKey(String contentHash, EMediaType type, EMediaKind kind) {
+        if (type == EMediaType.VIDEO || kind == EMediaKind.POST) {
+            return contentHash;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest((contentHash + ":" + kind.name()).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.back.service.storage;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+
+public interface MediaStorage {
+    String uploadImage(MultipartFile file) throws IOException;
+    String uploadVideo(MultipartFile file) throws IOException;
+    String uploadImage(File file) throws IOException;
+    String uploadVideo(File file) throws IOException;
+}
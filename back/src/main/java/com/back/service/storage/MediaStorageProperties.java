@@ -0,0 +1,15 @@
+package com.back.service.storage;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "media.storage")
+public class MediaStorageProperties {
+    private String type = "cloudinary";
+    private String localDir = "./media";
+    private String publicBaseUrl = "http://localhost:8080/media";
+    private long cacheMaxAgeSeconds = 31536000;
+}
@@ -0,0 +1,18 @@
+package com.back.service.timeline;
+
+import com.back.model.entity.TimelineEntry;
+import com.back.model.event.PostPublishedEvent;
+import com.back.utils.pagination.FeedCursor;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ITimelineService{
+    void fanOutPost(PostPublishedEvent event);
+    List<TimelineEntry> readPage(Long ownerId, FeedCursor cursor, int size);
+    void removeAuthorFromTimeline(Long ownerId, Long authorId);
+    void removePostFromFollowerTimelines(Long postId, Long authorId);
+    void backfillAuthor(Long ownerId, Long authorId);
+    void backfillTimeline(Long ownerId);
+    void removePosts(Collection<Long> postIds);
+}
@@ -0,0 +1,38 @@
+package com.back.service.timeline;
+
+import com.back.repository.IUserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "feed.timeline", name = "backfill-on-startup", havingValue = "true")
+public class TimelineBackfillRunner implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 200;
+
+    private final IUserRepository userRepository;
+    private final ITimelineService timelineService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Pageable pageable = PageRequest.of(0, BATCH_SIZE);
+        long total = 0;
+        Slice<Long> userIds;
+        do {
+            userIds = userRepository.findAllIds(pageable);
+            userIds.forEach(timelineService::backfillTimeline);
+            total += userIds.getNumberOfElements();
+            pageable = userIds.nextPageable();
+        } while (userIds.hasNext());
+        log.info("Đã backfill timeline cho {} người dùng", total);
+    }
+}
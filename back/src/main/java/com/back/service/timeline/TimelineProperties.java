@@ -0,0 +1,16 @@
+package com.back.service.timeline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "feed.timeline")
+public class TimelineProperties {
+    private boolean enabled = true;
+    private int backfillLimit = 500;
+    private boolean backfillOnStartup = false;
+    private long fanoutFollowerThreshold = 10000;
+    private long highFollowerRefreshMs = 300000;
+}
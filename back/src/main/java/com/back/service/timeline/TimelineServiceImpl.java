@@ -0,0 +1,262 @@
+package com.back.service.timeline;
+
+import com.back.model.entity.Post;
+import com.back.model.entity.TimelineEntry;
+import com.back.model.entity.TimelinePullAuthor;
+import com.back.model.enums.ECounterScope;
+import com.back.model.enums.EFollowStatus;
+import com.back.model.enums.EVisibility;
+import com.back.model.event.PostPublishedEvent;
+import com.back.repository.ICounterShardRepository;
+import com.back.repository.IFollowRepository;
+import com.back.repository.IPostRepository;
+import com.back.repository.ITimelineBackfillRepository;
+import com.back.repository.ITimelineEntryRepository;
+import com.back.repository.ISchedulerLeaseRepository;
+import com.back.repository.ITimelinePullAuthorRepository;
+import com.back.utils.pagination.FeedCursor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+@Slf4j
+@Service
+public class TimelineServiceImpl implements ITimelineService{
+
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::getCreatedAt)
+            .thenComparing(TimelineEntry::getPostId)
+            .reversed();
+    private static final String REFRESH_LEASE = "timeline.high-follower-refresh";
+
+    private final ITimelineEntryRepository timelineEntryRepository;
+    private final ITimelineBackfillRepository timelineBackfillRepository;
+    private final ITimelinePullAuthorRepository timelinePullAuthorRepository;
+    private final IFollowRepository followRepository;
+    private final IPostRepository postRepository;
+    private final ICounterShardRepository counterShardRepository;
+    private final ISchedulerLeaseRepository schedulerLeaseRepository;
+    private final TimelineProperties timelineProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    private final Counter skippedFanOutCounter;
+    private final Timer mergeTimer;
+    private final DistributionSummary pulledEntriesSummary;
+
+    private volatile Set<Long> highFollowerAuthorIds = Set.of();
+
+    public TimelineServiceImpl(ITimelineEntryRepository timelineEntryRepository,
+                               ITimelineBackfillRepository timelineBackfillRepository,
+                               ITimelinePullAuthorRepository timelinePullAuthorRepository,
+                               IFollowRepository followRepository,
+                               IPostRepository postRepository,
+                               ICounterShardRepository counterShardRepository,
+                               ISchedulerLeaseRepository schedulerLeaseRepository,
+                               TimelineProperties timelineProperties,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.timelineBackfillRepository = timelineBackfillRepository;
+        this.timelinePullAuthorRepository = timelinePullAuthorRepository;
+        this.followRepository = followRepository;
+        this.postRepository = postRepository;
+        this.counterShardRepository = counterShardRepository;
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.timelineProperties = timelineProperties;
+        this.transactionTemplate = transactionTemplate;
+
+        Gauge.builder("feed.fanout.follower.threshold", timelineProperties, TimelineProperties::getFanoutFollowerThreshold)
+                .description("Số follower tối đa để bài đăng còn được fan-out khi ghi")
+                .register(meterRegistry);
+        Gauge.builder("feed.hybrid.high.follower.authors", this, service -> service.highFollowerAuthorIds.size())
+                .description("Số tác giả vượt ngưỡng, được merge lúc đọc")
+                .register(meterRegistry);
+        this.skippedFanOutCounter = Counter.builder("feed.fanout.skipped")
+                .description("Số bài đăng không fan-out vì tác giả vượt ngưỡng follower")
+                .register(meterRegistry);
+        this.mergeTimer = Timer.builder("feed.hybrid.merge")
+                .description("Thời gian merge bài đăng của tác giả vượt ngưỡng vào timeline")
+                .register(meterRegistry);
+        this.pulledEntriesSummary = DistributionSummary.builder("feed.hybrid.merge.pulled")
+                .description("Số bài đăng đọc thêm cho mỗi lần merge")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void fanOutPost(PostPublishedEvent event) {
+        timelineEntryRepository.insertEntry(event.authorId(), event.postId(), event.authorId(), event.createdAt());
+
+        if (event.visibility() != EVisibility.PUBLIC) {
+            return;
+        }
+
+        // Dùng cùng snapshot với phía đọc, bài bị bỏ qua ở đây chắc chắn được merge lúc đọc
+        if (highFollowerAuthorIds.contains(event.authorId())) {
+            skippedFanOutCounter.increment();
+            return;
+        }
+
+        int inserted = timelineEntryRepository.fanOutToFollowers(event.postId(), event.authorId(), event.createdAt());
+        log.debug("Fan-out post {} của user {} tới {} timeline", event.postId(), event.authorId(), inserted);
+    }
+
+    @Override
+    @Transactional
+    public List<TimelineEntry> readPage(Long ownerId, FeedCursor cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+
+        List<TimelineEntry> entries;
+        if (cursor != null) {
+            entries = timelineEntryRepository.findPageBefore(ownerId, cursor.createdAt(), cursor.id(), pageable);
+        } else {
+            if (!timelineBackfillRepository.existsById(ownerId)) {
+                backfillTimeline(ownerId);
+            }
+            entries = timelineEntryRepository.findFirstPage(ownerId, pageable);
+        }
+
+        if (highFollowerAuthorIds.isEmpty()) {
+            return entries;
+        }
+        List<TimelineEntry> timelineEntries = entries;
+        return mergeTimer.record(() -> mergeHighFollowerPosts(ownerId, timelineEntries, cursor, pageable));
+    }
+
+    private List<TimelineEntry> mergeHighFollowerPosts(Long ownerId, List<TimelineEntry> entries,
+                                                       FeedCursor cursor, Pageable pageable) {
+        Set<Long> highFollowerAuthors = highFollowerAuthorIds;
+        List<Long> pulledAuthorIds = followRepository
+                .findFollowingIdsByFollowerIdAndStatus(ownerId, EFollowStatus.ACCEPTED).stream()
+                .filter(highFollowerAuthors::contains)
+                .toList();
+        if (pulledAuthorIds.isEmpty()) {
+            return entries;
+        }
+
+        List<Post> pulledPosts = cursor == null
+                ? postRepository.findViewableFeedFirstPage(pulledAuthorIds, ownerId, pageable.getPageSize())
+                : postRepository.findViewableFeedPageBefore(
+                        pulledAuthorIds, ownerId, cursor.createdAt(), cursor.id(), pageable.getPageSize());
+        pulledEntriesSummary.record(pulledPosts.size());
+
+        Map<Long, TimelineEntry> merged = new HashMap<>();
+        entries.forEach(entry -> merged.put(entry.getPostId(), entry));
+        pulledPosts.forEach(post -> merged.putIfAbsent(post.getId(), TimelineEntry.builder()
+                .ownerId(ownerId)
+                .postId(post.getId())
+                .authorId(post.getUser().getId())
+                .createdAt(post.getCreatedAt())
+                .build()));
+
+        return merged.values().stream()
+                .sorted(NEWEST_FIRST)
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    /**
+     * Mọi node nạp lại danh sách tác giả vượt ngưỡng từ timeline_pull_authors; chỉ node đang giữ lease tính lại danh
+     * sách đó từ bộ đếm follower USER_FOLLOWER, không GROUP BY trên bảng follows.
+     */
+    @Scheduled(fixedDelayString = "${feed.timeline.high-follower-refresh-ms:300000}")
+    public void refreshHighFollowerAuthors() {
+        Set<Long> leftAuthors = Set.of();
+        if (tryAcquireRefreshLease()) {
+            leftAuthors = transactionTemplate.execute(status -> recomputePullAuthors());
+        }
+
+        Set<Long> current = Set.copyOf(timelinePullAuthorRepository.findAllAuthorIds());
+        Set<Long> previous = highFollowerAuthorIds;
+        highFollowerAuthorIds = current;
+
+        // Bài đăng khi tác giả còn vượt ngưỡng chưa từng được fan-out, phải fan-out bù khi tác giả rời snapshot:
+        // tác giả rời bảng (phát hiện bởi node giữ lease, kể cả sau khi khởi động lại) và tác giả rời snapshot của node này
+        Set<Long> toFanOut = new HashSet<>(leftAuthors);
+        previous.stream().filter(authorId -> !current.contains(authorId)).forEach(toFanOut::add);
+        for (Long authorId : toFanOut) {
+            Integer inserted = transactionTemplate.execute(status ->
+                    timelineEntryRepository.fanOutRecentPosts(authorId, timelineProperties.getBackfillLimit()));
+            log.info("Tác giả {} xuống dưới ngưỡng follower, fan-out bù {} dòng timeline", authorId, inserted);
+        }
+    }
+
+    private boolean tryAcquireRefreshLease() {
+        Integer acquired = transactionTemplate.execute(status -> {
+            schedulerLeaseRepository.insertIfAbsent(REFRESH_LEASE);
+            return schedulerLeaseRepository.tryAcquire(REFRESH_LEASE, leaseOwner,
+                    2 * timelineProperties.getHighFollowerRefreshMs());
+        });
+        return acquired != null && acquired > 0;
+    }
+
+    private Set<Long> recomputePullAuthors() {
+        if (!counterShardRepository.existsByIdScope(ECounterScope.USER_FOLLOWER)) {
+            int seeded = counterShardRepository.seedUserFollowerShards();
+            log.info("Khởi tạo bộ đếm follower cho {} người dùng", seeded);
+        }
+        Set<Long> current = Set.copyOf(counterShardRepository.findEntityIdsWithSumAbove(
+                ECounterScope.USER_FOLLOWER, timelineProperties.getFanoutFollowerThreshold()));
+        Set<Long> previous = new HashSet<>(timelinePullAuthorRepository.findAllAuthorIds());
+
+        Set<Long> left = new HashSet<>(previous);
+        left.removeAll(current);
+        timelinePullAuthorRepository.deleteAllByIdInBatch(left);
+        timelinePullAuthorRepository.saveAll(current.stream()
+                .filter(authorId -> !previous.contains(authorId))
+                .map(TimelinePullAuthor::new)
+                .toList());
+        return left;
+    }
+
+    @Override
+    @Transactional
+    public void removeAuthorFromTimeline(Long ownerId, Long authorId) {
+        timelineEntryRepository.deleteByOwnerIdAndAuthorId(ownerId, authorId);
+    }
+
+    @Override
+    @Transactional
+    public void removePostFromFollowerTimelines(Long postId, Long authorId) {
+        timelineEntryRepository.deleteFollowerEntriesByPostId(postId, authorId);
+    }
+
+    @Override
+    @Transactional
+    public void backfillAuthor(Long ownerId, Long authorId) {
+        timelineEntryRepository.backfillFromAuthor(ownerId, authorId, timelineProperties.getBackfillLimit());
+    }
+
+    @Override
+    @Transactional
+    public void backfillTimeline(Long ownerId) {
+        timelineEntryRepository.backfillTimeline(ownerId, timelineProperties.getBackfillLimit());
+        timelineBackfillRepository.markBackfilled(ownerId);
+    }
+
+    @Override
+    @Transactional
+    public void removePosts(Collection<Long> postIds) {
+        if (!postIds.isEmpty()) {
+            timelineEntryRepository.deleteByPostIdIn(postIds);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.back.service.upload;
+
+import com.back.model.dto.request.UploadSessionRequest;
+import com.back.model.dto.response.APIResponse;
+import com.back.model.dto.response.UploadSessionResponse;
+import com.back.model.entity.UploadSession;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface IUploadSessionService{
+    APIResponse<UploadSessionResponse> createSession(UploadSessionRequest request);
+    APIResponse<UploadSessionResponse> getSession(String uploadId);
+    APIResponse<UploadSessionResponse> appendChunk(String uploadId, long offset, InputStream body);
+    APIResponse<UploadSessionResponse> completeSession(String uploadId);
+    List<UploadSession> attach(Long ownerId, List<String> uploadIds);
+}
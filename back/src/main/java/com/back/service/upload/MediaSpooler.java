@@ -0,0 +1,59 @@
+package com.back.service.upload;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+@Component
+@RequiredArgsConstructor
+public class MediaSpooler {
+
+    private final MediaUploadProperties mediaUploadProperties;
+
+    public SpooledFile spool(MultipartFile file) throws IOException {
+        Path directory = Files.createDirectories(Path.of(mediaUploadProperties.getSpoolDir()));
+        Path target = Files.createTempFile(directory, "upload-", ".part");
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            long size = Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+            return new SpooledFile(target, file.getContentType(), size, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    public static String sha256(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record SpooledFile(Path path, String contentType, long size, String sha256) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(path);
+        }
+    }
+}
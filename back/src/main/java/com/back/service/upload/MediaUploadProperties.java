@@ -0,0 +1,17 @@
+package com.back.service.upload;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "media.upload")
+public class MediaUploadProperties {
+    private int parallelism = 4;
+    private String spoolDir = System.getProperty("java.io.tmpdir") + "/insta-uploads";
+    private int chunkSizeBytes = 6 * 1024 * 1024;
+    private long maxChunkBytes = 16L * 1024 * 1024;
+    private long maxUploadBytes = 2L * 1024 * 1024 * 1024;
+    private int sessionTtlHours = 24;
+}
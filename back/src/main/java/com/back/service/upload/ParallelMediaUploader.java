@@ -0,0 +1,77 @@
+package com.back.service.upload;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+@Component
+@RequiredArgsConstructor
+public class ParallelMediaUploader {
+
+    private final MediaUploadProperties mediaUploadProperties;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @FunctionalInterface
+    public interface UploadTask<T, R> {
+        R upload(T item) throws IOException;
+    }
+
+    public <T, R> List<R> uploadAll(List<T> items, UploadTask<T, R> task) {
+        if (items.size() == 1) {
+            try {
+                return List.of(task.upload(items.getFirst()));
+            } catch (IOException e) {
+                throw new RuntimeException("Upload file lỗi", e);
+            }
+        }
+
+        Semaphore permits = new Semaphore(Math.max(1, mediaUploadProperties.getParallelism()));
+        CompletionService<Indexed<R>> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Indexed<R>>> futures = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            T item = items.get(i);
+            futures.add(completionService.submit(() -> {
+                permits.acquire();
+                try {
+                    return new Indexed<>(index, task.upload(item));
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        Object[] results = new Object[items.size()];
+        try {
+            for (int i = 0; i < items.size(); i++) {
+                Indexed<R> done = completionService.take().get();
+                results[done.index()] = done.value();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Upload file lỗi", e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Upload file bị gián đoạn", e);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<R> uploaded = (List<R>) Arrays.asList(results);
+        return uploaded;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Indexed<R>(int index, R value) {
+    }
+}
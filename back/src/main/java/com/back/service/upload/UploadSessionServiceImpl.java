@@ -0,0 +1,301 @@
+package com.back.service.upload;
+
+import com.back.model.dto.request.UploadSessionRequest;
+import com.back.model.dto.response.APIResponse;
+import com.back.model.dto.response.UploadSessionResponse;
+import com.back.model.entity.MediaBlob;
+import com.back.model.entity.UploadSession;
+import com.back.model.enums.EMediaKind;
+import com.back.model.enums.EMediaType;
+import com.back.model.enums.EUploadStatus;
+import com.back.repository.IUploadSessionRepository;
+import com.back.security.principal.CustomUserDetails;
+import com.back.service.storage.IMediaBlobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadSessionServiceImpl implements IUploadSessionService{
+
+    private static final String CHUNK_SUFFIX = ".chunk";
+
+    private final IUploadSessionRepository uploadSessionRepository;
+    private final IMediaBlobService mediaBlobService;
+    private final MediaUploadProperties mediaUploadProperties;
+
+    @Override
+    public APIResponse<UploadSessionResponse> createSession(UploadSessionRequest request) {
+        EMediaType mediaType = resolveMediaType(request.getContentType());
+        if (request.getTotalSize() <= 0 || request.getTotalSize() > mediaUploadProperties.getMaxUploadBytes()) {
+            throw new IllegalArgumentException("Kích thước file không hợp lệ");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = UploadSession.builder()
+                .id(UUID.randomUUID().toString())
+                .ownerId(currentUserId())
+                .fileName(request.getFileName())
+                .contentType(request.getContentType())
+                .totalSize(request.getTotalSize())
+                .receivedBytes(0)
+                .status(EUploadStatus.UPLOADING)
+                .mediaType(mediaType)
+                .kind(request.getKind() != null ? request.getKind() : EMediaKind.POST)
+                .createdAt(now)
+                .expiresAt(now.plusHours(mediaUploadProperties.getSessionTtlHours()))
+                .build();
+
+        try {
+            Files.createDirectories(sessionDir(session.getId()));
+        } catch (IOException e) {
+            throw new RuntimeException("Không tạo được phiên upload", e);
+        }
+        uploadSessionRepository.save(session);
+
+        return APIResponse.<UploadSessionResponse>builder()
+                .data(toResponse(session))
+                .status(201)
+                .message("Tạo phiên upload thành công")
+                .build();
+    }
+
+    @Override
+    public APIResponse<UploadSessionResponse> getSession(String uploadId) {
+        return APIResponse.<UploadSessionResponse>builder()
+                .data(toResponse(findOwned(uploadId)))
+                .message("Lấy phiên upload thành công")
+                .build();
+    }
+
+    @Override
+    public APIResponse<UploadSessionResponse> appendChunk(String uploadId, long offset, InputStream body) {
+        UploadSession session = findOwned(uploadId);
+        if (session.getStatus() != EUploadStatus.UPLOADING) {
+            throw new IllegalArgumentException("Phiên upload không còn nhận dữ liệu");
+        }
+        if (offset != session.getReceivedBytes()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Offset không khớp, server đã nhận " + session.getReceivedBytes() + " byte");
+        }
+
+        long limit = Math.min(session.getTotalSize() - offset, mediaUploadProperties.getMaxChunkBytes());
+        Path dir = sessionDir(uploadId);
+        long written;
+        try {
+            Path temp = Files.createTempFile(dir, "chunk-", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    written = copyAtMost(body, out, limit);
+                }
+                if (written == 0) {
+                    throw new IllegalArgumentException("Chunk rỗng");
+                }
+                // Giữ offset trước khi đổi tên file, để request thua khi ghi cùng offset không ghi đè chunk của request thắng
+                if (uploadSessionRepository.advanceOffset(uploadId, offset, offset + written) == 0) {
+                    long received = findOwned(uploadId).getReceivedBytes();
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Offset không khớp, server đã nhận " + received + " byte");
+                }
+                try {
+                    Files.move(temp, dir.resolve(chunkName(offset)),
+                            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    uploadSessionRepository.advanceOffset(uploadId, offset + written, offset);
+                    throw e;
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Ghi chunk thất bại", e);
+        }
+        session.setReceivedBytes(offset + written);
+
+        return APIResponse.<UploadSessionResponse>builder()
+                .data(toResponse(session))
+                .message("Đã nhận chunk")
+                .build();
+    }
+
+    @Override
+    public APIResponse<UploadSessionResponse> completeSession(String uploadId) {
+        UploadSession session = findOwned(uploadId);
+        if (session.getStatus() == EUploadStatus.COMPLETED || session.getStatus() == EUploadStatus.ATTACHED) {
+            return APIResponse.<UploadSessionResponse>builder()
+                    .data(toResponse(session))
+                    .message("Phiên upload đã hoàn tất")
+                    .build();
+        }
+        if (session.getReceivedBytes() != session.getTotalSize()) {
+            throw new IllegalArgumentException("Chưa nhận đủ dữ liệu của file");
+        }
+        if (uploadSessionRepository.transition(uploadId, EUploadStatus.UPLOADING, EUploadStatus.PROCESSING) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Phiên upload đang được xử lý");
+        }
+
+        Path dir = sessionDir(uploadId);
+        try {
+            Path assembled = assemble(dir, session.getTotalSize());
+            MediaBlob blob = mediaBlobService.store(assembled, session.getMediaType(), session.getKind());
+            session.setMediaUrl(blob.getUrl());
+            session.setVariants(blob.getVariants());
+            session.setPlaceholder(blob.getPlaceholder());
+            session.setStatus(EUploadStatus.COMPLETED);
+            uploadSessionRepository.save(session);
+        } catch (IOException | RuntimeException e) {
+            uploadSessionRepository.transition(uploadId, EUploadStatus.PROCESSING, EUploadStatus.UPLOADING);
+            throw new RuntimeException("Upload file lỗi", e);
+        }
+        deleteQuietly(dir);
+
+        return APIResponse.<UploadSessionResponse>builder()
+                .data(toResponse(session))
+                .message("Upload hoàn tất")
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public List<UploadSession> attach(Long ownerId, List<String> uploadIds) {
+        if (uploadIds == null || uploadIds.isEmpty()) {
+            return List.of();
+        }
+        Set<String> distinctIds = new LinkedHashSet<>(uploadIds);
+        if (uploadSessionRepository.markAttached(distinctIds, ownerId) != distinctIds.size()) {
+            throw new IllegalArgumentException("Upload không hợp lệ hoặc đã được sử dụng");
+        }
+        Map<String, UploadSession> sessions = uploadSessionRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(UploadSession::getId, Function.identity()));
+        return distinctIds.stream().map(sessions::get).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${media.upload.session-cleanup-ms:3600000}")
+    public void removeExpiredSessions() {
+        List<UploadSession> expired = uploadSessionRepository.findByExpiresAtBefore(LocalDateTime.now());
+        for (UploadSession session : expired) {
+            deleteQuietly(sessionDir(session.getId()));
+        }
+        uploadSessionRepository.deleteAll(expired);
+        if (!expired.isEmpty()) {
+            log.info("Đã xoá {} phiên upload hết hạn", expired.size());
+        }
+    }
+
+    private Path assemble(Path dir, long totalSize) throws IOException {
+        List<Path> chunks;
+        try (Stream<Path> files = Files.list(dir)) {
+            chunks = files.filter(path -> path.getFileName().toString().endsWith(CHUNK_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+
+        Path assembled = dir.resolve("assembled");
+        try (FileChannel out = FileChannel.open(assembled,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path chunk : chunks) {
+                try (FileChannel in = FileChannel.open(chunk, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+            if (out.size() != totalSize) {
+                throw new IOException("Kích thước file ghép không khớp: " + out.size() + "/" + totalSize);
+            }
+        }
+        return assembled;
+    }
+
+    private static long copyAtMost(InputStream in, OutputStream out, long limit) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            total += read;
+            if (total > limit) {
+                throw new IllegalArgumentException("Chunk vượt quá kích thước cho phép");
+            }
+            out.write(buffer, 0, read);
+        }
+        return total;
+    }
+
+    private UploadSession findOwned(String uploadId) {
+        return uploadSessionRepository.findById(uploadId)
+                .filter(session -> session.getOwnerId().equals(currentUserId()))
+                .orElseThrow(() -> new NoSuchElementException("Không tìm thấy phiên upload"));
+    }
+
+    private Long currentUserId() {
+        CustomUserDetails currentUserDetails = (CustomUserDetails) SecurityContextHolder
+                .getContext()
+                .getAuthentication()
+                .getPrincipal();
+        return currentUserDetails.getId();
+    }
+
+    private Path sessionDir(String uploadId) {
+        return Path.of(mediaUploadProperties.getSpoolDir(), "sessions", uploadId);
+    }
+
+    private static String chunkName(long offset) {
+        return String.format("%020d%s", offset, CHUNK_SUFFIX);
+    }
+
+    private static EMediaType resolveMediaType(String contentType) {
+        if (contentType != null && contentType.startsWith("video")) {
+            return EMediaType.VIDEO;
+        }
+        if (contentType != null && contentType.startsWith("image")) {
+            return EMediaType.IMAGE;
+        }
+        throw new IllegalArgumentException("Chỉ hỗ trợ file ảnh hoặc video");
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try {
+            FileSystemUtils.deleteRecursively(dir);
+        } catch (IOException e) {
+            log.warn("Không xoá được thư mục upload {}", dir, e);
+        }
+    }
+
+    private static UploadSessionResponse toResponse(UploadSession session) {
+        return UploadSessionResponse.builder()
+                .id(session.getId())
+                .fileName(session.getFileName())
+                .contentType(session.getContentType())
+                .totalSize(session.getTotalSize())
+                .receivedBytes(session.getReceivedBytes())
+                .status(session.getStatus())
+                .mediaType(session.getMediaType())
+                .mediaUrl(session.getMediaUrl())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
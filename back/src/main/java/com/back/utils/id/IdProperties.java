@@ -0,0 +1,15 @@
+package com.back.utils.id;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.id")
+public class IdProperties {
+    // 0..31, mỗi instance một giá trị riêng; để trống thì suy từ hostname/pid
+    private Integer nodeId;
+    // Bật khi chạy nhiều instance cùng ghi một database, lúc đó bắt buộc phải đặt node-id
+    private boolean multiNode = false;
+}
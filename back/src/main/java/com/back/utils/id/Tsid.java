@@ -0,0 +1,83 @@
+package com.back.utils.id;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sinh id 64-bit tăng theo thời gian, không khoá. Bố cục chỉ dùng 53 bit thấp để id vẫn an toàn khi
+ * frontend parse JSON thành Number: 41 bit mili giây tính từ {@link #EPOCH}, 5 bit node, 7 bit sequence.
+ *
+ * <p>Mỗi node cấp tối đa 128 id mỗi mili giây, tức khoảng 128 nghìn id/giây kéo dài. Vượt mức đó thì được mượn
+ * trước tối đa {@link #MAX_BORROW_MS} ms rồi phải chờ đồng hồ đuổi kịp, để khởi động lại process không cấp lại id cũ.
+ */
+public final class Tsid {
+
+    public static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    static final long MAX_BORROW_MS = 2;
+
+    private static volatile Tsid instance;
+
+    private final long node;
+    // (mili giây << SEQUENCE_BITS) | sequence của id vừa cấp
+    private final AtomicLong state = new AtomicLong();
+
+    private Tsid(long node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Node id phải nằm trong khoảng 0.." + MAX_NODE);
+        }
+        this.node = node;
+    }
+
+    public static Tsid get(Integer configuredNode) {
+        Tsid current = instance;
+        if (current == null) {
+            synchronized (Tsid.class) {
+                current = instance;
+                if (current == null) {
+                    current = new Tsid(configuredNode != null ? configuredNode : defaultNode());
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public long next() {
+        while (true) {
+            long now = System.currentTimeMillis() - EPOCH;
+            long last = state.get();
+            // Hết sequence trong 1 ms hoặc đồng hồ chạy lùi thì mượn mili giây kế tiếp, id vẫn tăng dần;
+            // đã đi trước đồng hồ quá MAX_BORROW_MS thì chờ, kể cả khi đồng hồ bị chỉnh lùi
+            long candidate = now > (last >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : last + 1;
+            if ((candidate >>> SEQUENCE_BITS) - now > MAX_BORROW_MS) {
+                LockSupport.parkNanos(100_000);
+                continue;
+            }
+            if (state.compareAndSet(last, candidate)) {
+                long millis = candidate >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (candidate & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    private static long defaultNode() {
+        String seed;
+        try {
+            seed = InetAddress.getLocalHost().getHostName() + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        } catch (Exception e) {
+            seed = ManagementFactory.getRuntimeMXBean().getName();
+        }
+        return (seed.hashCode() & Integer.MAX_VALUE) % (MAX_NODE + 1);
+    }
+}
@@ -0,0 +1,34 @@
+package com.back.utils.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+public class TsidGenerator implements BeforeExecutionGenerator {
+
+    public static final String NODE_ID_SETTING = "app.id.node-id";
+
+    private final Tsid tsid;
+
+    public TsidGenerator(TsidId config, Member member, GeneratorCreationContext context) {
+        Object node = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(NODE_ID_SETTING);
+        this.tsid = Tsid.get(node != null && !node.toString().isBlank() ? Integer.valueOf(node.toString().trim()) : null);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return tsid.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
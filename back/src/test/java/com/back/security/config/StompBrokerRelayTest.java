@@ -0,0 +1,231 @@
+package com.back.security.config;
+
+import com.back.model.event.PostReactionToggledEvent;
+import com.back.service.reaction.IReactionStateService;
+import com.back.service.reaction.ReactionIndexSync;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.BrokerAvailabilityEvent;
+import org.springframework.messaging.simp.stomp.*;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hai "instance" dùng hai StompBrokerRelayMessageHandler độc lập, cùng relay tới broker Artemis nhúng.
+ * Tin nhắn phát trên node A phải tới client subscribe ở cả node A lẫn node B, và thông báo bỏ bitmap lượt thích
+ * từ node A chỉ được node B xử lý.
+ */
+class StompBrokerRelayTest {
+
+    private static final String DESTINATION = "/topic/conversation/1";
+    private static final int MESSAGES = 500;
+
+    @TempDir
+    Path dataDir;
+
+    private ChatBrokerProperties properties;
+    private EmbeddedActiveMQ broker;
+    private final List<StompBrokerRelayMessageHandler> relays = new ArrayList<>();
+
+    @BeforeEach
+    void startBroker() throws Exception {
+        properties = new ChatBrokerProperties();
+        properties.setRelayPort(freePort());
+        properties.setSystemLogin("relay-system");
+        properties.setSystemPasscode("system-secret");
+        properties.setClientLogin("relay-client");
+        properties.setClientPasscode("client-secret");
+        properties.getEmbedded().setPort(properties.getRelayPort());
+        properties.getEmbedded().setDataDir(dataDir.toString());
+
+        broker = new EmbeddedStompBrokerConfig(properties).embeddedStompBroker();
+        broker.start();
+    }
+
+    @AfterEach
+    void stopBroker() throws Exception {
+        relays.forEach(StompBrokerRelayMessageHandler::stop);
+        broker.stop();
+    }
+
+    @Test
+    void broadcastFromOneNodeReachesSubscribersOnBothNodes() throws Exception {
+        Node nodeA = startNode();
+        Node nodeB = startNode();
+        CountDownLatch received = new CountDownLatch(2 * MESSAGES);
+        nodeA.subscribe("a-1", received);
+        nodeB.subscribe("b-1", received);
+
+        SimpMessagingTemplate template = nodeA.template();
+        for (int i = 0; i < MESSAGES; i++) {
+            template.convertAndSend(DESTINATION, "message-" + i);
+        }
+
+        assertTrue(received.await(30, TimeUnit.SECONDS), "Còn " + received.getCount() + " frame chưa tới");
+    }
+
+    @Test
+    void reactionInvalidationReachesOtherNodesOnly() throws Exception {
+        Node nodeA = startNode();
+        Node nodeB = startNode();
+        RecordingReactionState stateA = new RecordingReactionState();
+        RecordingReactionState stateB = new RecordingReactionState();
+        ReactionIndexSync syncA = new ReactionIndexSync(stateA, nodeA.template(), properties);
+        ReactionIndexSync syncB = new ReactionIndexSync(stateB, nodeB.template(), properties);
+        try {
+            syncA.ensureConnected();
+            syncB.ensureConnected();
+            assertTrue(stateA.connected.await(10, TimeUnit.SECONDS) && stateB.connected.await(10, TimeUnit.SECONDS),
+                    "Không kết nối được broker để nhận thông báo");
+
+            // SUBSCRIBE không chờ receipt nên gửi lại cho tới khi node B nhận được
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (stateB.invalidated.isEmpty() && System.currentTimeMillis() < deadline) {
+                syncA.onReactionToggled(new PostReactionToggledEvent(1L, 42L, true));
+                Thread.sleep(100);
+            }
+
+            assertEquals(42L, stateB.invalidated.peek());
+            assertTrue(stateA.invalidated.isEmpty(), "Node gửi không được tự bỏ bitmap vừa cập nhật");
+        } finally {
+            syncA.shutdown();
+            syncB.shutdown();
+        }
+    }
+
+    @Test
+    void brokerRejectsUnknownCredentials() {
+        ReactorNettyTcpStompClient client = new ReactorNettyTcpStompClient("127.0.0.1", properties.getRelayPort());
+        StompHeaders headers = new StompHeaders();
+        headers.setLogin("guest");
+        headers.setPasscode("guest");
+        try {
+            CompletableFuture<StompSession> session = client.connectAsync(headers, new StompSessionHandlerAdapter() {
+            });
+            assertThrows(Exception.class, () -> session.get(5, TimeUnit.SECONDS));
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    private Node startNode() throws InterruptedException {
+        ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel outbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        StompBrokerRelayMessageHandler relay =
+                new StompBrokerRelayMessageHandler(inbound, outbound, brokerChannel, List.of("/topic"));
+        relay.setRelayHost("127.0.0.1");
+        relay.setRelayPort(properties.getRelayPort());
+        relay.setSystemLogin(properties.getSystemLogin());
+        relay.setSystemPasscode(properties.getSystemPasscode());
+        relay.setClientLogin(properties.getClientLogin());
+        relay.setClientPasscode(properties.getClientPasscode());
+
+        CountDownLatch systemConnected = new CountDownLatch(1);
+        relay.setApplicationEventPublisher(event -> {
+            if (event instanceof BrokerAvailabilityEvent available && available.isBrokerAvailable()) {
+                systemConnected.countDown();
+            }
+        });
+        relay.start();
+        relays.add(relay);
+        assertTrue(systemConnected.await(10, TimeUnit.SECONDS), "Relay không kết nối được tới broker");
+        return new Node(relay, outbound, brokerChannel);
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static class RecordingReactionState implements IReactionStateService {
+
+        private final CountDownLatch connected = new CountDownLatch(1);
+        private final Queue<Long> invalidated = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public boolean hasReacted(Long userId, Long postId) {
+            return false;
+        }
+
+        @Override
+        public Set<Long> reactedPostIds(Long userId, Collection<Long> postIds) {
+            return Set.of();
+        }
+
+        @Override
+        public void invalidate(Long userId) {
+            invalidated.add(userId);
+        }
+
+        @Override
+        public void invalidateAll() {
+            connected.countDown();
+        }
+    }
+
+    private record Node(StompBrokerRelayMessageHandler relay, ExecutorSubscribableChannel outbound,
+                        ExecutorSubscribableChannel brokerChannel) {
+
+        SimpMessagingTemplate template() {
+            SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+            template.setMessageConverter(new StringMessageConverter());
+            return template;
+        }
+
+        void subscribe(String sessionId, CountDownLatch received) throws InterruptedException {
+            CountDownLatch connected = new CountDownLatch(1);
+            CountDownLatch subscribed = new CountDownLatch(1);
+            outbound.subscribe(message -> {
+                StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+                if (!sessionId.equals(accessor.getSessionId())) {
+                    return;
+                }
+                if (accessor.getCommand() == StompCommand.CONNECTED) {
+                    connected.countDown();
+                } else if (accessor.getCommand() == StompCommand.RECEIPT) {
+                    subscribed.countDown();
+                } else if (accessor.getCommand() == StompCommand.MESSAGE) {
+                    received.countDown();
+                }
+            });
+
+            StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+            connect.setSessionId(sessionId);
+            connect.setAcceptVersion("1.2");
+            connect.setHeartbeat(0, 0);
+            relay.handleMessage(frame(connect));
+            assertTrue(connected.await(10, TimeUnit.SECONDS), "Session " + sessionId + " không CONNECTED");
+
+            StompHeaderAccessor subscribe = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+            subscribe.setSessionId(sessionId);
+            subscribe.setSubscriptionId("sub-" + sessionId);
+            subscribe.setDestination(DESTINATION);
+            subscribe.setReceipt("receipt-" + sessionId);
+            relay.handleMessage(frame(subscribe));
+            assertTrue(subscribed.await(10, TimeUnit.SECONDS), "Session " + sessionId + " không subscribe được");
+        }
+
+        private static Message<byte[]> frame(StompHeaderAccessor accessor) {
+            accessor.setLeaveMutable(true);
+            return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.back.utils.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TsidTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 20_000;
+
+    @Test
+    void idsAreUniqueAndIncreasingAcrossThreads() throws Exception {
+        Tsid tsid = Tsid.get(null);
+        List<Callable<long[]>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                for (int j = 0; j < ids.length; j++) {
+                    ids[j] = tsid.next();
+                }
+                return ids;
+            });
+        }
+
+        List<long[]> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (Future<long[]> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        }
+
+        Set<Long> seen = new HashSet<>(THREADS * IDS_PER_THREAD * 2);
+        for (long[] ids : results) {
+            for (int j = 0; j < ids.length; j++) {
+                assertTrue(seen.add(ids[j]), "Trùng id " + ids[j]);
+                if (j > 0) {
+                    assertTrue(ids[j] > ids[j - 1], "Id không tăng dần trong một thread");
+                }
+            }
+        }
+        long latest = results.stream().mapToLong(ids -> ids[ids.length - 1]).max().orElseThrow();
+        assertTrue(Tsid.timestampOf(latest) <= System.currentTimeMillis() + Tsid.MAX_BORROW_MS,
+                "Id đi trước đồng hồ quá " + Tsid.MAX_BORROW_MS + " ms");
+    }
+
+    @Test
+    void idsFitInJavaScriptSafeInteger() {
+        long id = Tsid.get(null).next();
+        assertTrue(id > 0 && id < (1L << 53));
+        assertTrue(Math.abs(Tsid.timestampOf(id) - System.currentTimeMillis()) < 60_000);
+    }
+}